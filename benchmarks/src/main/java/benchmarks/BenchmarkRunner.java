@@ -0,0 +1,38 @@
+package benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Run the benchmarks with 1, 2, 4... threads up to the number of processors, with the GC profiler
+ * reporting the allocation rate of every benchmark (gc.alloc.rate.norm is per operation).
+ * Arguments are regular expressions selecting the benchmarks to run, all of them by default:
+ * java -cp target/benchmarks.jar benchmarks.BenchmarkRunner CacheBenchmark.get
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        int processors = Runtime.getRuntime().availableProcessors();
+
+        for (int threads = 1; ; threads = Math.min(2 * threads, processors)) {
+            OptionsBuilder options = new OptionsBuilder();
+            for (String include : args.length == 0 ? new String[] {"benchmarks\\."} : args) {
+                options.include(include);
+            }
+            Options runOptions = options
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class)
+                    .build();
+            new Runner(runOptions).run();
+            if (threads == processors) {
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package benchmarks;
+
+import cachingSystem.classes.ARCCache;
+import cachingSystem.classes.ClockCache;
+import cachingSystem.classes.ConcurrentLRUCache;
+import cachingSystem.classes.LIRSCache;
+import cachingSystem.classes.LRUCache;
+import cachingSystem.classes.ObservableCache;
+import cachingSystem.classes.ObservableFIFOCache;
+import cachingSystem.classes.TimeAwareCache;
+import cachingSystem.classes.TinyLFUCache;
+import cachingSystem.interfaces.CacheStalePolicy;
+import dataStructures.classes.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * get, put and mixed throughput of the in-memory caches, bounded by their number of entries like
+ * FileCache.createCacheWithCapacity bounds them. Caches that aren't thread-safe are used under
+ * their monitor, the way FileCache uses them, so runs with several threads measure the contention
+ * on that lock as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheBenchmark {
+    /* number of keys drawn per thread, a power of two so the next one is found with a mask */
+    static final int KEYS_PER_THREAD = 1 << 16;
+    /* accesses go to four times more keys than the cache holds */
+    static final int KEY_SPACE_FACTOR = 4;
+    /* one operation in MIXED_PUT_EVERY is a put in the mixed benchmark */
+    static final int MIXED_PUT_EVERY = 10;
+    /* long enough for nothing to expire during a run, but every entry is still scheduled */
+    private static final long EXPIRE_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    @Param({"FIFO", "LRU", "TIME", "CONCURRENT_LRU", "TINYLFU", "ARC", "LIRS", "CLOCK"})
+    public String cacheType;
+
+    @Param({"UNIFORM", "ZIPFIAN"})
+    public KeyDistribution distribution;
+
+    @Param({"1000"})
+    public int capacity;
+
+    private ObservableCache<Integer, Integer> cache;
+    private boolean threadSafe;
+
+    @Setup
+    public void createCache() {
+        cache = newCache(cacheType, capacity);
+        cache.setStalePolicy(new CacheStalePolicy<Integer, Integer>() {
+            @Override
+            public boolean shouldRemoveEldestEntry(Pair<Integer, Integer> entry) {
+                return cache.size() > capacity;
+            }
+        });
+        threadSafe = cache.isThreadSafe();
+        for (int key = 0; key < capacity; key++) { /* start full, like a warm cache */
+            cache.put(key, key);
+        }
+    }
+
+    private static ObservableCache<Integer, Integer> newCache(String type, int capacity) {
+        switch (type) {
+            case "FIFO":
+                return new ObservableFIFOCache<>();
+            case "LRU":
+                return new LRUCache<>();
+            case "TIME":
+                TimeAwareCache<Integer, Integer> timeAwareCache = new TimeAwareCache<>();
+                timeAwareCache.setExpirePolicy(EXPIRE_MILLIS);
+                return timeAwareCache;
+            case "CONCURRENT_LRU":
+                return new ConcurrentLRUCache<>();
+            case "TINYLFU":
+                return new TinyLFUCache<>(capacity);
+            case "ARC":
+                return new ARCCache<>(capacity);
+            case "LIRS":
+                return new LIRSCache<>(capacity);
+            case "CLOCK":
+                return new ClockCache<>(capacity);
+            default:
+                throw new IllegalArgumentException("Unknown cache type: " + type);
+        }
+    }
+
+    /**
+     * The keys one thread accesses, boxed beforehand so boxing doesn't show in the allocation
+     * rate.
+     */
+    @State(Scope.Thread)
+    public static class ThreadKeys {
+        private Integer[] keys;
+        private int next;
+
+        @Setup
+        public void drawKeys(CacheBenchmark benchmark, ThreadParams threadParams) {
+            int[] drawn = benchmark.distribution.draw(KEY_SPACE_FACTOR * benchmark.capacity,
+                    KEYS_PER_THREAD, threadParams.getThreadIndex());
+            keys = new Integer[drawn.length];
+            for (int i = 0; i < drawn.length; i++) {
+                keys[i] = drawn[i];
+            }
+        }
+
+        Integer nextKey() {
+            return keys[next++ & (KEYS_PER_THREAD - 1)];
+        }
+
+        boolean nextIsPut() {
+            return next % MIXED_PUT_EVERY == 0;
+        }
+    }
+
+    @Benchmark
+    public Integer get(ThreadKeys threadKeys) {
+        return get(threadKeys.nextKey());
+    }
+
+    @Benchmark
+    public void put(ThreadKeys threadKeys) {
+        Integer key = threadKeys.nextKey();
+        put(key, key);
+    }
+
+    @Benchmark
+    public Integer mixed(ThreadKeys threadKeys) {
+        boolean isPut = threadKeys.nextIsPut();
+        Integer key = threadKeys.nextKey();
+
+        if (isPut) {
+            put(key, key);
+            return key;
+        }
+        return get(key);
+    }
+
+    private Integer get(Integer key) {
+        if (threadSafe) {
+            return cache.get(key);
+        }
+        synchronized (cache) {
+            return cache.get(key);
+        }
+    }
+
+    private void put(Integer key, Integer value) {
+        if (threadSafe) {
+            cache.put(key, value);
+            return;
+        }
+        synchronized (cache) {
+            cache.put(key, value);
+        }
+    }
+}
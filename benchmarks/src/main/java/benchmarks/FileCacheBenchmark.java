@@ -0,0 +1,136 @@
+package benchmarks;
+
+import cachingSystem.FileCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * get, put and mixed throughput of FileCache over small files in a temporary directory, for
+ * every strategy. Misses read the file from disk, so the hit rate of a strategy under a
+ * distribution shows in its throughput. TIME is only bounded by its expiration, so it ends up
+ * holding every file and measures the hit path alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileCacheBenchmark {
+    private static final int FILE_BYTES = 1024;
+    /* long enough for nothing to expire during a run */
+    private static final long EXPIRE_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    @Param({"FIFO", "LRU", "TIME", "CONCURRENT_LRU", "TINYLFU", "ARC", "LIRS", "CLOCK"})
+    public String cacheType;
+
+    @Param({"UNIFORM", "ZIPFIAN"})
+    public KeyDistribution distribution;
+
+    @Param({"1000"})
+    public int capacity;
+
+    private Path directory;
+    private String[] paths;
+    private String contents;
+    private FileCache fileCache;
+
+    @Setup
+    public void createFiles() throws IOException {
+        char[] body = new char[FILE_BYTES];
+        Arrays.fill(body, 'x');
+        contents = new String(body);
+
+        directory = Files.createTempDirectory("file-cache-benchmark");
+        paths = new String[CacheBenchmark.KEY_SPACE_FACTOR * capacity];
+        for (int i = 0; i < paths.length; i++) {
+            Path file = directory.resolve("file-" + i);
+            Files.write(file, contents.getBytes(StandardCharsets.UTF_8));
+            paths[i] = file.toString();
+        }
+
+        fileCache = "TIME".equals(cacheType)
+                ? FileCache.createCacheWithExpiration(EXPIRE_MILLIS)
+                : FileCache.createCacheWithCapacity(FileCache.Strategy.valueOf(cacheType),
+                        capacity);
+        for (int i = 0; i < capacity; i++) { /* start full, like a warm cache */
+            fileCache.getFileContents(paths[i]);
+        }
+    }
+
+    @TearDown
+    public void deleteFiles() throws IOException {
+        for (String path : paths) {
+            Files.deleteIfExists(Paths.get(path));
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    /**
+     * The paths one thread reads.
+     */
+    @State(Scope.Thread)
+    public static class ThreadPaths {
+        private String[] paths;
+        private int next;
+
+        @Setup
+        public void drawPaths(FileCacheBenchmark benchmark, ThreadParams threadParams) {
+            int[] drawn = benchmark.distribution.draw(benchmark.paths.length,
+                    CacheBenchmark.KEYS_PER_THREAD, threadParams.getThreadIndex());
+            paths = new String[drawn.length];
+            for (int i = 0; i < drawn.length; i++) {
+                paths[i] = benchmark.paths[drawn[i]];
+            }
+        }
+
+        String nextPath() {
+            return paths[next++ & (CacheBenchmark.KEYS_PER_THREAD - 1)];
+        }
+
+        boolean nextIsPut() {
+            return next % CacheBenchmark.MIXED_PUT_EVERY == 0;
+        }
+    }
+
+    @Benchmark
+    public String getFileContents(ThreadPaths threadPaths) {
+        return fileCache.getFileContents(threadPaths.nextPath());
+    }
+
+    @Benchmark
+    public void putFileContents(ThreadPaths threadPaths) {
+        fileCache.putFileContents(threadPaths.nextPath(), contents);
+    }
+
+    @Benchmark
+    public String mixed(ThreadPaths threadPaths) {
+        boolean isPut = threadPaths.nextIsPut();
+        String path = threadPaths.nextPath();
+
+        if (isPut) {
+            fileCache.putFileContents(path, contents);
+            return contents;
+        }
+        return fileCache.getFileContents(path);
+    }
+}
@@ -0,0 +1,61 @@
+package benchmarks;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Distributions the benchmarks draw their keys from. Keys are drawn once, when a benchmark is set
+ * up, so generating them isn't part of what is measured.
+ */
+public enum KeyDistribution {
+    /**
+     * Every key is as likely.
+     */
+    UNIFORM {
+        @Override
+        int[] draw(int keySpace, int count, long seed) {
+            Random random = new Random(seed);
+            int[] keys = new int[count];
+
+            for (int i = 0; i < count; i++) {
+                keys[i] = random.nextInt(keySpace);
+            }
+            return keys;
+        }
+    },
+    /**
+     * Key k is drawn with a probability proportional to 1 / (k + 1) ^ 0.99, the skew YCSB uses:
+     * a few keys make up most of the accesses, like the popular files of a real workload.
+     */
+    ZIPFIAN {
+        @Override
+        int[] draw(int keySpace, int count, long seed) {
+            double[] cumulative = new double[keySpace];
+            double sum = 0;
+
+            for (int k = 0; k < keySpace; k++) {
+                sum += 1 / Math.pow(k + 1, ZIPF_THETA);
+                cumulative[k] = sum;
+            }
+            Random random = new Random(seed);
+            int[] keys = new int[count];
+            for (int i = 0; i < count; i++) {
+                int index = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+                keys[i] = Math.min(keySpace - 1, index < 0 ? -index - 1 : index);
+            }
+            return keys;
+        }
+    };
+
+    private static final double ZIPF_THETA = 0.99;
+
+    /**
+     * Draw keys between 0 and keySpace - 1.
+     *
+     * @param keySpace the number of distinct keys
+     * @param count the number of keys drawn
+     * @param seed the seed of the generator, so every run draws the same keys
+     * @return the keys, in the order they are accessed
+     */
+    abstract int[] draw(int keySpace, int count, long seed);
+}
@@ -11,6 +11,11 @@ import java.util.List;
 public final class Main {
     private static final String FIFO_CACHE = "FIFO";
     private static final String LRU_CACHE = "LRU";
+    private static final String CONCURRENT_LRU_CACHE = "CONCURRENT_LRU";
+    private static final String TINYLFU_CACHE = "TINYLFU";
+    private static final String ARC_CACHE = "ARC";
+    private static final String LIRS_CACHE = "LIRS";
+    private static final String CLOCK_CACHE = "CLOCK";
     private static final String TIME_AWARE_CACHE = "TIME";
     private static final String DELAY_COMMAND = "delay";
     private static final String GET_COMMAND = "get";
@@ -46,6 +51,17 @@ public final class Main {
                 return FileCache.createCacheWithCapacity(FileCache.Strategy.FIFO, (int) parameter);
             case LRU_CACHE:
                 return FileCache.createCacheWithCapacity(FileCache.Strategy.LRU, (int) parameter);
+            case CONCURRENT_LRU_CACHE:
+                return FileCache.createCacheWithCapacity(FileCache.Strategy.CONCURRENT_LRU,
+                        (int) parameter);
+            case TINYLFU_CACHE:
+                return FileCache.createCacheWithCapacity(FileCache.Strategy.TINYLFU, (int) parameter);
+            case ARC_CACHE:
+                return FileCache.createCacheWithCapacity(FileCache.Strategy.ARC, (int) parameter);
+            case LIRS_CACHE:
+                return FileCache.createCacheWithCapacity(FileCache.Strategy.LIRS, (int) parameter);
+            case CLOCK_CACHE:
+                return FileCache.createCacheWithCapacity(FileCache.Strategy.CLOCK, (int) parameter);
             case TIME_AWARE_CACHE:
                 return FileCache.createCacheWithExpiration(parameter);
             default:
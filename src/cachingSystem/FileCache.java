@@ -1,43 +1,175 @@
 package cachingSystem;
 
+import cachingSystem.classes.ARCCache;
+import cachingSystem.classes.BlockCache;
+import cachingSystem.classes.CacheSnapshot;
+import cachingSystem.classes.ClockCache;
+import cachingSystem.classes.ConcurrentLRUCache;
+import cachingSystem.classes.ContentsChannel;
+import cachingSystem.classes.FileContents;
+import cachingSystem.classes.FileWatchInvalidator;
+import cachingSystem.classes.HeapContentsStore;
+import cachingSystem.classes.HeapFileContents;
 import cachingSystem.classes.ObservableCache;
 import cachingSystem.classes.ObservableFIFOCache;
+import cachingSystem.classes.Prefetcher;
+import cachingSystem.classes.LIRSCache;
+import cachingSystem.classes.MaintenanceScheduler;
 import cachingSystem.classes.LRUCache;
+import cachingSystem.classes.NioFileLoader;
+import cachingSystem.classes.SegmentStore;
+import cachingSystem.classes.TieredCache;
 import cachingSystem.classes.TimeAwareCache;
+import cachingSystem.classes.TinyLFUCache;
 import cachingSystem.interfaces.CacheStalePolicy;
+import cachingSystem.interfaces.ContentsStore;
+import cachingSystem.interfaces.FileLoader;
+import cachingSystem.interfaces.Weigher;
 import dataStructures.classes.Pair;
+import dataStructures.classes.TokenBucket;
+import observerPattern.classes.AsyncBroadcastListener;
 import observerPattern.classes.BroadcastListener;
 import observerPattern.interfaces.CacheListener;
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 
 public final class FileCache {
 
+    private static final Executor LOADER_EXECUTOR = createLoaderExecutor();
+
     public enum Strategy {
         FIFO,
         LRU,
+        CONCURRENT_LRU,
+        TINYLFU,
+        ARC,
+        LIRS,
+        CLOCK,
     }
 
-    public static cachingSystem.FileCache createCacheWithCapacity(
-            cachingSystem.FileCache.Strategy strategy, int capacity) {
-        ObservableCache<String, String> dataCache;
+    /* rough footprint of an entry: the key String plus whatever its contents account for */
+    private static final long STRING_OVERHEAD = 40;
+    private static final Weigher<String, FileContents> ENTRY_WEIGHER =
+            new Weigher<String, FileContents>() {
+        @Override
+        public long weigh(String key, FileContents value) {
+            return STRING_OVERHEAD + (long) Character.BYTES * key.length() + value.weight();
+        }
+    };
 
+    /* number of files whose successors the prefetcher remembers */
+    private static final int PREFETCH_TRACKED_KEYS = 10_000;
+
+    /* used to size the adaptive strategies when the cache is bounded by bytes */
+    private static final long ESTIMATED_ENTRY_BYTES = 4096;
+
+    private static ObservableCache<String, FileContents> createDataCache(
+            cachingSystem.FileCache.Strategy strategy, int expectedSize) {
         switch (strategy) {
 
             case FIFO:
-                dataCache = new ObservableFIFOCache<>();
-                break;
+                return new ObservableFIFOCache<>();
             case LRU:
-                dataCache = new LRUCache<>();
-                break;
+                return new LRUCache<>();
+            case CONCURRENT_LRU:
+                return new ConcurrentLRUCache<>();
+            case TINYLFU:
+                return new TinyLFUCache<>(expectedSize);
+            case ARC:
+                return new ARCCache<>(expectedSize);
+            case LIRS:
+                return new LIRSCache<>(expectedSize);
+            case CLOCK:
+                return new ClockCache<>(expectedSize);
             default:
                 throw new IllegalArgumentException("Unsupported cache strategy: " + strategy);
         }
+    }
+
+    public static cachingSystem.FileCache createCacheWithCapacity(
+            cachingSystem.FileCache.Strategy strategy, int capacity) {
+        ObservableCache<String, FileContents> dataCache = createDataCache(strategy, capacity);
+
+        dataCache.setStalePolicy(new CacheStalePolicy<String, FileContents>() {
+            @Override
+            public boolean shouldRemoveEldestEntry(Pair<String, FileContents> entry) {
+                return dataCache.size() > capacity;
+            }
+        });
+
+        return new cachingSystem.FileCache(dataCache);
+    }
+
+    /**
+     * Create a cache bounded by the estimated bytes of its entries rather than by their number.
+     * After each put, eldest entries are evicted until the cache fits the budget again.
+     *
+     * @param strategy the eviction strategy
+     * @param maxBytes the budget, in bytes
+     * @return the new cache
+     */
+    public static cachingSystem.FileCache createCacheWithMaxWeight(
+            cachingSystem.FileCache.Strategy strategy, long maxBytes) {
+        ObservableCache<String, FileContents> dataCache = createDataCache(strategy,
+                (int) Math.min(Integer.MAX_VALUE, maxBytes / ESTIMATED_ENTRY_BYTES));
+
+        dataCache.setWeigher(ENTRY_WEIGHER);
+        dataCache.setStalePolicy(new CacheStalePolicy<String, FileContents>() {
+            @Override
+            public boolean shouldRemoveEldestEntry(Pair<String, FileContents> entry) {
+                return dataCache.weightedSize() > maxBytes;
+            }
+        });
+
+        return new cachingSystem.FileCache(dataCache);
+    }
 
-        dataCache.setStalePolicy(new CacheStalePolicy<String, String>() {
+    /**
+     * Create an LRU cache holding capacity files in memory, which spills the files it evicts to
+     * segment files in a local directory instead of dropping them, so they are read from local
+     * disk rather than from their original path when they are needed again.
+     *
+     * @param capacity the number of files kept in memory
+     * @param spillDirectory the directory of the segment files, whose old segments are deleted
+     * @param segmentBytes the size of a segment file, files larger than that are not spilled
+     * @param maxSpillBytes the disk space the spilled files may take
+     * @return the new cache
+     * @throws UncheckedIOException if the directory could not be prepared
+     */
+    public static cachingSystem.FileCache createTieredCache(int capacity, String spillDirectory,
+                                                            int segmentBytes, long maxSpillBytes) {
+        TieredCache dataCache;
+
+        try {
+            dataCache = new TieredCache(
+                    new SegmentStore(Paths.get(spillDirectory), segmentBytes, maxSpillBytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not prepare " + spillDirectory, e);
+        }
+        dataCache.setStalePolicy(new CacheStalePolicy<String, FileContents>() {
             @Override
-            public boolean shouldRemoveEldestEntry(Pair<String, String> entry) {
+            public boolean shouldRemoveEldestEntry(Pair<String, FileContents> entry) {
                 return dataCache.size() > capacity;
             }
         });
@@ -46,73 +178,901 @@ public final class FileCache {
     }
 
     public static cachingSystem.FileCache createCacheWithExpiration(long millisToExpire) {
-        TimeAwareCache<String, String> dataCache = new TimeAwareCache<>();
+        TimeAwareCache<String, FileContents> dataCache = new TimeAwareCache<>();
 
         dataCache.setExpirePolicy(millisToExpire);
 
         return new cachingSystem.FileCache(dataCache);
     }
 
-    private FileCache(ObservableCache<String, String> dataCache) {
+    private FileCache(ObservableCache<String, FileContents> dataCache) {
         this.dataCache = dataCache;
-        this.broadcastListener = new BroadcastListener<>();
+        this.listeners = new BroadcastListener<>();
+        this.broadcastListener = listeners;
+        this.inFlightLoads = new ConcurrentHashMap<>();
+        this.fileLoader = new NioFileLoader();
+        this.contentsStore = new HeapContentsStore();
 
-        this.dataCache.setCacheListener(broadcastListener);
-
-        broadcastListener.addListener(createCacheListener());
+        this.dataCache.setCacheListener(createCacheListener());
     }
 
-    private CacheListener<String, String> createCacheListener() {
-        return new CacheListener<String, String>() {
+    private CacheListener<String, FileContents> createCacheListener() {
+        return new CacheListener<String, FileContents>() {
             @Override
             public void onMiss(String key) {
-                try {
-                    /* read each line, add it to the "result" = the whole file as a single String
-                    then put the result in the cache memory */
-                    BufferedReader reader = new BufferedReader(new FileReader(key));
-                    String result = new String();
-                    String line;
-                    while ((line =  reader.readLine()) != null) {
-                        result += line;
-                    }
-                    dataCache.put(key, result);
-                    reader.close();
-                } catch (IOException e) {
-                    System.out.println("Exception thrown: " + e);
-                }
+                broadcastListener.onMiss(key);
             }
 
             @Override
             public void onHit(String key) {
-                /* move along */
+                broadcastListener.onHit(key);
+            }
+
+            @Override
+            public void onPut(String key, FileContents value) {
+                /* broadcast by store, which still has the contents as a String */
             }
 
             @Override
-            public void onPut(String key, String value) {
-                /* these are not the droids you are looking for */
+            public void onEvict(String key) {
+                broadcastListener.onEvict(key);
             }
 
+            @Override
+            public void onRemove(String key, FileContents value) {
+                value.release(); /* drop the reference owned by the cache */
+
+                FileWatchInvalidator watcher = fileWatcher;
+                /* a value replaced, or moved to the disk tier, is still cached */
+                if (watcher != null && !dataCache.containsKey(key)) {
+                    watcher.unwatch(key);
+                }
+            }
         };
     }
 
-    public String getFileContents(String path) {
-        String fileContents;
+    /**
+     * Create the executor running asynchronous loads. Loads run on virtual threads when the JVM
+     * has them (Java 21+), otherwise on a cached pool of daemon threads.
+     *
+     * @return the loader executor
+     */
+    private static Executor createLoaderExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (Executor) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "file-cache-loader");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /* the caches below are not thread-safe, so loader threads and callers take turns on them */
 
-        do {
-            fileContents = dataCache.get(path);
-        } while (fileContents == null);
+    private String lookup(String path) {
+        return decode(path, lookupContents(path));
+    }
 
+    /**
+     * Look up the contents of a file, without retaining them.
+     */
+    private FileContents lookupContents(String path) {
+        if (dataCache.isThreadSafe()) {
+            return dataCache.get(path);
+        }
+        synchronized (dataCache) {
+            return dataCache.get(path);
+        }
+    }
+
+    private Map<String, FileContents> lookupAll(Collection<String> paths) {
+        if (dataCache.isThreadSafe()) {
+            return dataCache.getAll(paths);
+        }
+        synchronized (dataCache) {
+            return dataCache.getAll(paths);
+        }
+    }
+
+    private String decode(String path, FileContents contents) {
+        if (!acquire(path, contents)) {
+            return null;
+        }
+        try {
+            return contents.asString();
+        } finally {
+            contents.release();
+        }
+    }
+
+    /**
+     * Take a reference to looked up contents, if they are still valid. The entry may be evicted
+     * and its memory freed while it is read, so it is held on to until the caller releases it.
+     *
+     * @return false if the contents are missing, freed or stale, which counts as a miss
+     */
+    private boolean acquire(String path, FileContents contents) {
+        if (contents == null || !contents.retain()) {
+            return false;
+        }
+        boolean valid = false;
+        try {
+            /* otherwise reload it like a miss */
+            valid = !claimRevalidation(contents) || isUnchanged(path, contents);
+            return valid;
+        } finally {
+            if (!valid) {
+                contents.release();
+            }
+        }
+    }
+
+    /**
+     * Tell whether retained contents are due for revalidation, and if so, make the other readers
+     * trust them until it is done.
+     */
+    private boolean claimRevalidation(FileContents contents) {
+        return revalidationNanos > 0
+                && contents.claimRevalidation(System.nanoTime(), revalidationNanos);
+    }
+
+    private static boolean isUnchanged(String path, FileContents contents) {
+        try {
+            BasicFileAttributes attributes = readAttributes(path);
+            return contents.matchesFileMetadata(attributes.lastModifiedTime().toMillis(),
+                    attributes.size());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static BasicFileAttributes readAttributes(String path) throws IOException {
+        return Files.readAttributes(Paths.get(path), BasicFileAttributes.class);
+    }
+
+    private void store(String path, String contents) {
+        store(path, contents, null);
+    }
+
+    private void store(String path, String contents, BasicFileAttributes attributes) {
+        FileContents storedContents = toFileContents(contents, attributes);
+
+        if (dataCache.isThreadSafe()) {
+            dataCache.put(path, storedContents);
+        } else {
+            synchronized (dataCache) {
+                dataCache.put(path, storedContents);
+            }
+        }
+        broadcastListener.onPut(path, contents);
+    }
+
+    /**
+     * Put several loaded files in the cache in one batch.
+     */
+    private void storeAll(Map<String, LoadedFile> files) {
+        Map<String, FileContents> batch = new LinkedHashMap<>();
+
+        for (Map.Entry<String, LoadedFile> file : files.entrySet()) {
+            batch.put(file.getKey(),
+                    toFileContents(file.getValue().contents, file.getValue().attributes));
+        }
+        if (dataCache.isThreadSafe()) {
+            dataCache.putAll(batch);
+        } else {
+            synchronized (dataCache) {
+                dataCache.putAll(batch);
+            }
+        }
+        for (Map.Entry<String, LoadedFile> file : files.entrySet()) {
+            broadcastListener.onPut(file.getKey(), file.getValue().contents);
+        }
+    }
+
+    private FileContents toFileContents(String contents, BasicFileAttributes attributes) {
+        FileContents storedContents = contentsStore.store(contents);
+
+        if (attributes != null) {
+            storedContents.setFileMetadata(attributes.lastModifiedTime().toMillis(),
+                    attributes.size(), System.nanoTime());
+        }
+        return storedContents;
+    }
+
+    private boolean isCached(String path) {
+        if (dataCache.isThreadSafe()) {
+            return dataCache.containsKey(path);
+        }
+        synchronized (dataCache) {
+            return dataCache.containsKey(path);
+        }
+    }
+
+    /**
+     * Load a file the prefetcher expects to be read soon, if it isn't cached or loading yet and
+     * the I/O budget allows it. Everything but the checks runs on a loader thread.
+     */
+    private void prefetch(String path, Semaphore permits, TokenBucket budget) {
+        if (isCached(path) || inFlightLoads.containsKey(path) || !permits.tryAcquire()) {
+            return;
+        }
+        try {
+            LOADER_EXECUTOR.execute(() -> {
+                try {
+                    if (budget.tryAcquire(Files.size(Paths.get(path)))) {
+                        loadFileContents(path, Runnable::run);
+                    }
+                } catch (IOException e) {
+                    /* gone or unreadable, a real read will report it */
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void invalidate(String path) {
+        if (dataCache.isThreadSafe()) {
+            dataCache.remove(path);
+        } else {
+            synchronized (dataCache) {
+                dataCache.remove(path);
+            }
+        }
+        InFlightLoad load = inFlightLoads.get(path);
+        if (load != null) { /* it may have read the file before the change, make it read again */
+            load.invalidate();
+        }
+    }
+
+    private void refresh(String path) {
+        invalidate(path);
+        /* a deleted file simply fails to load and stays out of the cache */
+        loadFileContents(path, LOADER_EXECUTOR);
+    }
+
+    /**
+     * Load a file that missed the cache and put it in the cache. Concurrent misses on the same
+     * path share a single load: the first caller starts reading the file on the given executor,
+     * the others get the same future.
+     *
+     * @param path the path of the file
+     * @param executor the executor that reads the file
+     * @return the future contents of the file
+     */
+    private CompletableFuture<String> loadFileContents(String path, Executor executor) {
+        InFlightLoad load = new InFlightLoad();
+        InFlightLoad inFlightLoad = inFlightLoads.putIfAbsent(path, load);
+
+        if (inFlightLoad != null) { /* someone else is already reading this file */
+            return inFlightLoad;
+        }
+        executor.execute(() -> completeLoad(path, load));
+        return load;
+    }
+
+    private void completeLoad(String path, InFlightLoad load) {
+        try {
+            LoadedFile file = readFile(path);
+            for (;;) {
+                while (load.takeInvalidation()) { /* changed while we read, don't cache it */
+                    file = readFile(path);
+                }
+                store(path, file.contents, file.attributes);
+                if (!load.takeInvalidation()) {
+                    break;
+                }
+                file = readFile(path); /* changed while we stored, replace it */
+            }
+            watchAgain(path);
+            load.complete(file.contents);
+        } catch (IOException e) {
+            load.completeExceptionally(new UncheckedIOException("Could not load " + path, e));
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+        } finally {
+            inFlightLoads.remove(path, load);
+        }
+    }
+
+    /**
+     * Load several files that missed the cache. The files nobody else is loading are read in
+     * parallel on the loader executor, then put in the cache in one batch; the others are waited
+     * for.
+     *
+     * @param paths the paths of the files
+     * @return the future contents of every file, by path
+     */
+    private Map<String, InFlightLoad> loadAll(Collection<String> paths) {
+        Map<String, InFlightLoad> loads = new LinkedHashMap<>();
+        Map<String, CompletableFuture<LoadedFile>> reads = new LinkedHashMap<>();
+
+        for (String path : paths) {
+            InFlightLoad load = new InFlightLoad();
+            InFlightLoad inFlightLoad = inFlightLoads.putIfAbsent(path, load);
+
+            if (inFlightLoad != null) {
+                loads.put(path, inFlightLoad);
+                continue;
+            }
+            loads.put(path, load);
+            reads.put(path, CompletableFuture.supplyAsync(() -> {
+                try {
+                    return readFile(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not load " + path, e);
+                }
+            }, LOADER_EXECUTOR));
+        }
+        Map<String, LoadedFile> files = new LinkedHashMap<>();
+        for (Map.Entry<String, CompletableFuture<LoadedFile>> read : reads.entrySet()) {
+            try {
+                files.put(read.getKey(), read.getValue().join());
+            } catch (CompletionException e) {
+                completeRead(read.getKey(), loads.get(read.getKey()), null, e.getCause());
+            }
+        }
+        Throwable failure = null;
+        try {
+            storeAll(files);
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        for (Map.Entry<String, LoadedFile> file : files.entrySet()) {
+            completeRead(file.getKey(), loads.get(file.getKey()), file.getValue(), failure);
+        }
+        return loads;
+    }
+
+    private void completeRead(String path, InFlightLoad load, LoadedFile file,
+                              Throwable failure) {
+        if (failure == null && load.takeInvalidation()) { /* changed while we read, read it again */
+            completeLoad(path, load);
+            return;
+        }
+        try {
+            if (failure != null) {
+                load.completeExceptionally(failure);
+            } else {
+                watchAgain(path);
+                load.complete(file.contents);
+            }
+        } finally {
+            inFlightLoads.remove(path, load);
+        }
+    }
+
+    private LoadedFile readFile(String path) throws IOException {
+        FileWatchInvalidator watcher = fileWatcher;
+        if (watcher != null) { /* watch before reading, so no change can slip in between */
+            watcher.watch(path);
+        }
+        try {
+            /* stat before reading, so a change made while we read is caught next time */
+            BasicFileAttributes attributes = revalidationNanos > 0 ? readAttributes(path) : null;
+            long loadStart = System.nanoTime();
+            String contents = fileLoader.load(path);
+            broadcastListener.onLoad(path, System.nanoTime() - loadStart);
+            return new LoadedFile(contents, attributes);
+        } catch (IOException | RuntimeException e) {
+            if (watcher != null && !isCached(path)) { /* nothing to invalidate, stop watching */
+                watcher.unwatch(path);
+            }
+            throw e;
+        }
+    }
+
+    private void watchAgain(String path) {
+        FileWatchInvalidator watcher = fileWatcher;
+        if (watcher != null) { /* storing may have replaced an older entry, and unwatched it */
+            watcher.watch(path);
+        }
+    }
+
+    private static String awaitLoad(CompletableFuture<String> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) { /* hand the loader's failure to every waiter */
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Get the contents of a file, loading it on the calling thread on a miss.
+     *
+     * @param path the path of the file
+     * @return the contents of the file
+     * @throws UncheckedIOException if the file missed the cache and could not be read
+     */
+    public String getFileContents(String path) {
+        String fileContents = lookup(path);
+
+        if (fileContents == null) {
+            fileContents = awaitLoad(loadFileContents(path, Runnable::run));
+        }
         return fileContents;
     }
 
+    /**
+     * Get the contents of several files. The cached ones are looked up in one batch; the missing
+     * ones are read in parallel and put in the cache in one batch as well.
+     *
+     * @param paths the paths of the files
+     * @return the contents of every file, by path, in the iteration order of paths
+     * @throws UncheckedIOException if a file missed the cache and could not be read; the other
+     * files are still cached
+     */
+    public Map<String, String> getAll(Collection<String> paths) {
+        Map<String, FileContents> cached = lookupAll(paths);
+        Map<String, String> result = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+
+        for (String path : paths) {
+            String fileContents = decode(path, cached.get(path));
+            if (fileContents == null) {
+                missing.add(path);
+            }
+            result.put(path, fileContents);
+        }
+        if (!missing.isEmpty()) {
+            RuntimeException failure = null;
+            for (Map.Entry<String, InFlightLoad> load : loadAll(missing).entrySet()) {
+                try {
+                    result.put(load.getKey(), awaitLoad(load.getValue()));
+                } catch (RuntimeException e) {
+                    failure = failure == null ? e : failure;
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the contents of a file without blocking on a miss: the file is then read on a loader
+     * thread and the future completes once it is cached. A cached file due for revalidation is
+     * checked against its file on a loader thread as well.
+     *
+     * @param path the path of the file
+     * @return the future contents of the file, failing with an UncheckedIOException if the file
+     * could not be read
+     */
+    public CompletableFuture<String> getFileContentsAsync(String path) {
+        FileContents contents = lookupContents(path);
+
+        if (contents == null || !contents.retain()) {
+            /* a dependent future, so a caller cancelling it does not cancel the shared load */
+            return loadFileContents(path, LOADER_EXECUTOR).thenApply(Function.identity());
+        }
+        if (!claimRevalidation(contents)) {
+            try {
+                return CompletableFuture.completedFuture(contents.asString());
+            } finally {
+                contents.release();
+            }
+        }
+        return CompletableFuture.supplyAsync(() -> { /* the stat may block, like a read */
+            try {
+                if (isUnchanged(path, contents)) {
+                    return contents.asString();
+                }
+            } finally {
+                contents.release();
+            }
+            return awaitLoad(loadFileContents(path, Runnable::run));
+        }, LOADER_EXECUTOR);
+    }
+
+    /**
+     * Get the contents of several files, loading all the missing ones concurrently.
+     *
+     * @param paths the paths of the files
+     * @return the future map from each path to its contents, in the iteration order of paths
+     */
+    public CompletableFuture<Map<String, String>> getAllAsync(Collection<String> paths) {
+        Map<String, CompletableFuture<String>> loads = new LinkedHashMap<>();
+
+        for (String path : paths) {
+            loads.put(path, getFileContentsAsync(path));
+        }
+        return CompletableFuture.allOf(loads.values().toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> {
+                    Map<String, String> result = new LinkedHashMap<>();
+                    for (Map.Entry<String, CompletableFuture<String>> load : loads.entrySet()) {
+                        result.put(load.getKey(), load.getValue().join());
+                    }
+                    return result;
+                });
+    }
+
+    /**
+     * Get a range of the bytes of a file, through the block cache: only the blocks the range
+     * spans are read and cached, not the whole file. Range caching must be enabled first.
+     *
+     * @param path the path of the file
+     * @param offset the position of the range in the file
+     * @param length the length of the range
+     * @return a read-only buffer holding the range, shorter than length if the file ends before
+     * @throws UncheckedIOException if a block missed the cache and could not be read
+     * @throws IllegalStateException if range caching is not enabled
+     */
+    public ByteBuffer getFileRange(String path, long offset, int length) {
+        BlockCache blocks = blockCache;
+
+        if (blocks == null) {
+            throw new IllegalStateException("Range caching is not enabled");
+        }
+        try {
+            return blocks.read(path, offset, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + path, e);
+        }
+    }
+
+    /**
+     * Open a read-only channel over the UTF-8 bytes of a file, loading it on the calling thread
+     * on a miss. The channel holds on to the cached contents until it is closed, and reads them
+     * from wherever the contents store keeps them.
+     *
+     * @param path the path of the file
+     * @return the channel, which must be closed
+     * @throws UncheckedIOException if the file missed the cache and could not be read
+     */
+    public ContentsChannel openChannel(String path) {
+        FileContents contents = lookupContents(path);
+
+        if (!acquire(path, contents)) { /* serve the loaded String, the next read hits */
+            contents = new HeapFileContents(awaitLoad(loadFileContents(path, Runnable::run)));
+        }
+        try {
+            return new ContentsChannel(contents);
+        } catch (RuntimeException e) { /* e.g. contents freed meanwhile, don't leak the reference */
+            contents.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Write the UTF-8 bytes of a file to a channel, e.g. a socket, loading the file on the
+     * calling thread on a miss. With an off-heap store or contents restored from a snapshot, the
+     * bytes go straight from the cache to the channel, without being copied to the heap first;
+     * the default heap store encodes a file chunk by chunk as it is written.
+     *
+     * @param path the path of the file
+     * @param target the channel written to
+     * @return the number of bytes written, fewer than the file holds if the target is
+     * non-blocking and got full
+     * @throws IOException if the target could not be written
+     * @throws UncheckedIOException if the file missed the cache and could not be read
+     */
+    public long transferTo(String path, WritableByteChannel target) throws IOException {
+        try (ContentsChannel channel = openChannel(path)) {
+            return channel.transferTo(target);
+        }
+    }
+
     public void putFileContents(String path, String contents) {
-        dataCache.put(path, contents);
+        store(path, contents);
+    }
+
+    /**
+     * Set the loader used to read files that miss the cache.
+     *
+     * @param fileLoader the loader that is set
+     */
+    public void setFileLoader(FileLoader fileLoader) {
+        this.fileLoader = fileLoader;
+    }
+
+    /**
+     * Set the store keeping the contents of cached files, e.g. an OffHeapContentsStore, a
+     * CompressingContentsStore or a DedupContentsStore. This should be done before any file is
+     * cached.
+     *
+     * @param contentsStore the store that is set
+     */
+    public void setContentsStore(ContentsStore contentsStore) {
+        this.contentsStore = contentsStore;
+    }
+
+    /**
+     * Revalidate cached files at most once per interval: on access, the last modified time and
+     * size of the file are compared to the ones it was loaded with, and the file is only read
+     * again if they differ. Files loaded before this call are not revalidated.
+     *
+     * @param millis the time between two revalidations of an entry, or 0 to disable them
+     */
+    public void setRevalidationInterval(long millis) {
+        revalidationNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    /**
+     * Run evictions and expirations on the scheduler's thread rather than on the threads reading
+     * files, which then never pay for them. Entries may stay a little longer than their policy
+     * allows, until the next maintenance run.
+     *
+     * @param scheduler the scheduler that is set, or null to maintain the cache inline again
+     */
+    public void setMaintenanceScheduler(MaintenanceScheduler scheduler) {
+        dataCache.setMaintenanceScheduler(scheduler);
+    }
+
+    /**
+     * Watch the files behind loaded entries, and drop an entry as soon as its file is created,
+     * modified or deleted, so entries can be kept with very long expiration times. Files loaded
+     * before this call are not watched.
+     *
+     * @param refresh whether changed files are reloaded in the background instead of only dropped
+     * @throws UncheckedIOException if the watch service could not be created
+     */
+    public void enableWatchInvalidation(boolean refresh) {
+        FileWatchInvalidator watcher;
+        try {
+            watcher = new FileWatchInvalidator(refresh ? this::refresh : this::invalidate);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not watch files", e);
+        }
+        disableWatchInvalidation();
+        fileWatcher = watcher;
+    }
+
+    /**
+     * Stop watching the files behind loaded entries.
+     */
+    public void disableWatchInvalidation() {
+        FileWatchInvalidator watcher = fileWatcher;
+
+        fileWatcher = null;
+        if (watcher != null) {
+            try {
+                watcher.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not stop watching files", e);
+            }
+        }
+    }
+
+    /**
+     * Write the cached files, their recency order and the time they were loaded at to a snapshot
+     * file, replacing the previous one atomically. Only the LRU and time-aware caches keep their
+     * entries in an order worth saving, so only they can be snapshotted.
+     *
+     * @param snapshotPath the path of the snapshot file
+     * @throws UncheckedIOException if the snapshot could not be written
+     * @throws UnsupportedOperationException if the cache uses another strategy
+     */
+    public void saveSnapshot(String snapshotPath) {
+        LRUCache<String, FileContents> lruCache = snapshotCache();
+        CacheSnapshot snapshot = new CacheSnapshot();
+
+        synchronized (dataCache) { /* only take references under the lock, write outside of it */
+            lruCache.forEachEldestFirst(snapshot::add);
+        }
+        try {
+            snapshot.writeTo(Paths.get(snapshotPath));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write snapshot " + snapshotPath, e);
+        }
+    }
+
+    /**
+     * Restore the files of a snapshot in the cache, e.g. right after a restart, keeping their
+     * recency order and the time they were loaded at. The snapshot is memory-mapped and the
+     * contents of a file are only decoded when it is read. Files already cached keep their
+     * contents, and files that would have expired are left out. When revalidation is on, the
+     * restored files are revalidated like any other.
+     *
+     * @param snapshotPath the path of the snapshot file
+     * @return the number of files restored
+     * @throws UncheckedIOException if the snapshot could not be read
+     * @throws UnsupportedOperationException if the cache uses another strategy than LRU or
+     * expiration
+     */
+    public int restoreSnapshot(String snapshotPath) {
+        LRUCache<String, FileContents> lruCache = snapshotCache();
+        CacheSnapshot snapshot;
+        List<String> restored;
+
+        try {
+            snapshot = CacheSnapshot.readFrom(Paths.get(snapshotPath));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read snapshot " + snapshotPath, e);
+        }
+        synchronized (dataCache) {
+            restored = snapshot.restoreInto(lruCache);
+        }
+        for (String path : restored) {
+            watchAgain(path);
+        }
+        return restored.size();
+    }
+
+    /**
+     * Save a snapshot of the cache periodically, on a background thread. Failed snapshots are
+     * reported to that thread's uncaught exception handler and retried at the next period.
+     *
+     * @param snapshotPath the path of the snapshot file
+     * @param periodMillis the time between two snapshots
+     * @throws UnsupportedOperationException if the cache uses another strategy than LRU or
+     * expiration
+     */
+    public void enableSnapshots(String snapshotPath, long periodMillis) {
+        snapshotCache(); /* fail now rather than on the snapshot thread */
+        disableSnapshots();
+
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "file-cache-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                saveSnapshot(snapshotPath);
+            } catch (RuntimeException e) { /* keep the schedule going */
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+        snapshotExecutor = executor;
+    }
+
+    /**
+     * Stop saving snapshots periodically. A snapshot being written is finished.
+     */
+    public void disableSnapshots() {
+        ScheduledExecutorService executor = snapshotExecutor;
+
+        snapshotExecutor = null;
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private LRUCache<String, FileContents> snapshotCache() {
+        if (!(dataCache instanceof LRUCache)) {
+            throw new UnsupportedOperationException(
+                    "Snapshots need an LRU or expiring cache, not a " + dataCache.getClass());
+        }
+        return (LRUCache<String, FileContents>) dataCache;
+    }
+
+    /**
+     * Cache ranges of files in fixed-size, aligned blocks, for getFileRange. The blocks are kept
+     * apart from the whole files cached by getFileContents, and sequential reads of a file get the
+     * next blocks read ahead on a loader thread. Blocks are not revalidated nor watched.
+     *
+     * @param blockSize the size of a block, in bytes
+     * @param maxBlocks the number of blocks kept in memory
+     * @param readAheadBlocks the number of blocks read ahead of sequential reads, 0 for none
+     */
+    public void enableRangeCaching(int blockSize, int maxBlocks, int readAheadBlocks) {
+        blockCache = new BlockCache(blockSize, maxBlocks, readAheadBlocks, LOADER_EXECUTOR);
+    }
+
+    /**
+     * Learn which files are read after which, and load the likely next ones in the background
+     * before they are asked for. Prefetches are bounded both in number and in bytes read. Calling
+     * this again replaces the previous prefetcher and its limits.
+     *
+     * @param minConfidence the share of the reads following a file, between 0 and 1, another file
+     * needs to be prefetched after it
+     * @param maxInFlight the number of prefetches that may run at the same time
+     * @param maxBytesPerSecond the number of bytes prefetching may read per second
+     * @throws IllegalArgumentException if maxInFlight or maxBytesPerSecond is not positive
+     */
+    public void enablePrefetching(double minConfidence, int maxInFlight, long maxBytesPerSecond) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("Prefetches in flight must be positive: "
+                    + maxInFlight);
+        }
+        if (maxBytesPerSecond <= 0) {
+            throw new IllegalArgumentException("Prefetch bytes per second must be positive: "
+                    + maxBytesPerSecond);
+        }
+        Semaphore permits = new Semaphore(maxInFlight);
+        TokenBucket budget = new TokenBucket(maxBytesPerSecond);
+        Prefetcher<String, String> previous = prefetcher;
+        Prefetcher<String, String> replacement = new Prefetcher<>(PREFETCH_TRACKED_KEYS,
+                minConfidence, path -> prefetch(path, permits, budget));
+
+        if (previous != null) {
+            listeners.removeListener(previous);
+        }
+        listeners.addListener(replacement);
+        prefetcher = replacement;
+    }
+
+    /**
+     * Call the listeners on a dispatcher thread, so they no longer add to the time of get. Events
+     * go through a ring of bufferSize slots. Callers holding the lock of the cache never wait for
+     * a full ring, since a listener may need that lock too: they call the listeners themselves.
+     *
+     * @param bufferSize the number of events the ring holds
+     * @param overflowPolicy whether events are dropped or callers wait while the ring is full
+     */
+    public void enableAsyncListeners(int bufferSize,
+                                     AsyncBroadcastListener.OverflowPolicy overflowPolicy) {
+        AsyncBroadcastListener<String, String> dispatcher =
+                new AsyncBroadcastListener<>(bufferSize, overflowPolicy);
+
+        disableAsyncListeners();
+        dispatcher.setHoldsListenerLock(() -> Thread.holdsLock(dataCache));
+        dispatcher.addListener(listeners);
+        asyncListener = dispatcher;
+        broadcastListener = dispatcher;
+    }
+
+    /**
+     * Call the listeners on the threads using the cache again, after dispatching the events still
+     * queued, and stop the dispatcher thread.
+     */
+    public void disableAsyncListeners() {
+        AsyncBroadcastListener<String, String> dispatcher = asyncListener;
+
+        asyncListener = null;
+        if (dispatcher != null) {
+            broadcastListener = listeners;
+            dispatcher.close();
+        }
     }
 
     public void addListener(CacheListener<String, String> listener) {
-        broadcastListener.addListener(listener);
+        listeners.addListener(listener);
+    }
+
+    /**
+     * A file that was just read, with the attributes it had before.
+     */
+    private static final class LoadedFile {
+        private final String contents;
+        private final BasicFileAttributes attributes;
+
+        LoadedFile(String contents, BasicFileAttributes attributes) {
+            this.contents = contents;
+            this.attributes = attributes;
+        }
+    }
+
+    /**
+     * A load in flight, told when its file changes while it is read or stored.
+     */
+    private static final class InFlightLoad extends CompletableFuture<String> {
+        private final AtomicBoolean invalidated = new AtomicBoolean();
+
+        void invalidate() {
+            invalidated.set(true);
+        }
+
+        boolean takeInvalidation() {
+            return invalidated.getAndSet(false);
+        }
     }
 
-    private ObservableCache<String, String> dataCache;
-    private BroadcastListener<String, String> broadcastListener;
+    private ObservableCache<String, FileContents> dataCache;
+    /* the listeners events are broadcast to, directly or through asyncListener */
+    private final BroadcastListener<String, String> listeners;
+    private volatile BroadcastListener<String, String> broadcastListener;
+    private volatile AsyncBroadcastListener<String, String> asyncListener;
+    /* the listener prefetching files, if prefetching is enabled */
+    private volatile Prefetcher<String, String> prefetcher;
+    /* loads currently reading a file, shared by every caller that misses on the same path */
+    private ConcurrentHashMap<String, InFlightLoad> inFlightLoads;
+    private volatile FileLoader fileLoader;
+    private volatile ContentsStore contentsStore;
+    private volatile FileWatchInvalidator fileWatcher;
+    private volatile long revalidationNanos;
+    private volatile ScheduledExecutorService snapshotExecutor;
+    private volatile BlockCache blockCache;
 }
@@ -0,0 +1,202 @@
+package cachingSystem.classes;
+
+import dataStructures.classes.Pair;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+/**
+ * Adaptive replacement cache (Megiddo and Modha). Resident entries live in T1 (seen once recently)
+ * or T2 (seen at least twice); evicted keys are remembered in the ghost lists B1 and B2. A put of
+ * a key found in B1 means T1 was too small, one found in B2 means T2 was, and the target size p of
+ * T1 adapts accordingly, so the cache balances recency and frequency on its own.
+ * The stale policy still decides when to evict; the ghost lists hold at most as many keys as the
+ * capacity given to the constructor.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class ARCCache<K, V> extends ObservableCache<K, V> {
+    /* every map is ordered from least to most recently used */
+    private final LinkedHashMap<K, V> t1 = new LinkedHashMap<>();
+    private final LinkedHashMap<K, V> t2 = new LinkedHashMap<>();
+    private final LinkedHashSet<K> b1 = new LinkedHashSet<>();
+    private final LinkedHashSet<K> b2 = new LinkedHashSet<>();
+    private final int capacity;
+    private int p;
+    private boolean lastInsertFromB2;
+
+    /**
+     * @param capacity the number of entries the cache holds, which also bounds the ghost lists
+     */
+    public ARCCache(int capacity) {
+        this.capacity = Math.max(capacity, 1);
+    }
+
+    /**
+     * Get a value from cache using a key. If the key isn't found, onMiss events are triggered.
+     * @param key the key used to get a value
+     * @return the value that we got for that key
+     */
+    public V get(K key) {
+        V gottenValue = t1.remove(key);
+
+        if (gottenValue == null) {
+            gottenValue = t2.remove(key);
+        }
+        if (gottenValue == null) {
+            cacheListener.onMiss(key);
+            return null;
+        }
+        t2.put(key, gottenValue); /* seen again, it now counts as frequent */
+        cacheListener.onHit(key);
+
+        return gottenValue;
+    }
+
+    /**
+     *  Put a (key, value) pair in the cache memory.
+     *  @param key the key put in the cache
+     *  @param value the value put in the cache
+     */
+    public void put(K key, V value) {
+        V oldValue = t1.remove(key);
+
+        if (oldValue == null) {
+            oldValue = t2.remove(key);
+        }
+        if (oldValue != null) { /* an update also counts as a second access */
+            t2.put(key, value);
+            if (oldValue != value) {
+                recordRemoval(key, oldValue);
+                recordInsertion(key, value);
+            }
+        } else if (b1.remove(key)) { /* T1 evicted it too early, give T1 more room */
+            p = Math.min(capacity, p + Math.max(b2.size() / Math.max(b1.size(), 1), 1));
+            lastInsertFromB2 = false;
+            t2.put(key, value);
+            recordInsertion(key, value);
+        } else if (b2.remove(key)) { /* T2 evicted it too early, give T2 more room */
+            p = Math.max(0, p - Math.max(b1.size() / Math.max(b2.size(), 1), 1));
+            lastInsertFromB2 = true;
+            t2.put(key, value);
+            recordInsertion(key, value);
+        } else {
+            lastInsertFromB2 = false;
+            t1.put(key, value);
+            recordInsertion(key, value);
+            trimGhosts();
+        }
+        cacheListener.onPut(key, value);
+        clearStaleEntries();
+    }
+
+    /**
+     * tell whether a key is in the cache, without triggering events or counting as an access.
+     * @param key the key
+     * @return true if the cache holds a value for the key
+     */
+    @Override
+    public boolean containsKey(K key) {
+        return t1.containsKey(key) || t2.containsKey(key);
+    }
+    /**
+     * get the size of the cache memory.
+     * @return the cache's size
+     */
+    public int size() {
+        return t1.size() + t2.size();
+    }
+
+    /**
+     * return if the cache memory is empty or not.
+     * @return the empty status of the cache
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * remove an element from the memory using it's key.
+     * @param key the key of the element that will be removed
+     * @return the value for the removed key
+     */
+    public V remove(K key) {
+        V removedValue = t1.remove(key);
+
+        if (removedValue == null) {
+            removedValue = t2.remove(key);
+        }
+        if (removedValue != null) {
+            recordRemoval(key, removedValue);
+        }
+        return removedValue;
+    }
+
+    /**
+     *  remove all elements from the cache, and forget the ghost entries.
+     */
+    public void clearAll() {
+        while (!isEmpty()) {
+            remove(getEldestEntry().getKey());
+        }
+        b1.clear();
+        b2.clear();
+        p = 0;
+    }
+
+    /**
+     * Return the entry ARC replaces next: the LRU entry of T1 while T1 is above its target size,
+     * the LRU entry of T2 otherwise.
+     * @return the entry to evict next
+     */
+    public Pair<K, V> getEldestEntry() {
+        Map.Entry<K, V> eldest;
+
+        if (!t1.isEmpty() && (t1.size() > p || t2.isEmpty()
+                || (lastInsertFromB2 && t1.size() == p))) {
+            eldest = t1.entrySet().iterator().next();
+        } else if (!t2.isEmpty()) {
+            eldest = t2.entrySet().iterator().next();
+        } else {
+            return null;
+        }
+        return new Pair<K, V>(eldest.getKey(), eldest.getValue());
+    }
+
+    /**
+     * Evicted keys are remembered in the ghost list matching the list they leave.
+     */
+    @Override
+    protected boolean evictEntry(Pair<K, V> eldest) {
+        K key = eldest.getKey();
+        boolean fromT1 = t1.containsKey(key);
+
+        if (remove(key) == null) {
+            return false;
+        }
+        (fromT1 ? b1 : b2).add(key);
+        trimGhosts();
+        return true;
+    }
+
+    /**
+     * Keep |T1| + |B1| and the total directory size within the bounds of ARC.
+     */
+    private void trimGhosts() {
+        while (!b1.isEmpty() && t1.size() + b1.size() > capacity) {
+            removeEldest(b1);
+        }
+        while (!b2.isEmpty() && size() + b1.size() + b2.size() > 2 * capacity) {
+            removeEldest(b2);
+        }
+    }
+
+    private static <K> void removeEldest(LinkedHashSet<K> ghosts) {
+        Iterator<K> iterator = ghosts.iterator();
+        iterator.next();
+        iterator.remove();
+    }
+}
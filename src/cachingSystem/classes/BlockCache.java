@@ -0,0 +1,258 @@
+package cachingSystem.classes;
+
+import cachingSystem.interfaces.CacheStalePolicy;
+import dataStructures.classes.Pair;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Cache of the fixed-size, aligned blocks of files, keyed by (path, block index), so ranges of huge
+ * files can be read without loading the files whole. Blocks are kept in a ConcurrentLRUCache
+ * bounded by their number, and concurrent misses on a block share a single read.
+ * Reads are tracked per file: a range starting where the previous one of the same file ended is
+ * taken as sequential access, and the blocks following it are read ahead in the background.
+ * Blocks are neither revalidated nor watched, so this suits data files that don't change in place.
+ */
+public class BlockCache {
+    /* number of files whose last read position is remembered for read-ahead */
+    private static final int MAX_STREAMS = 1024;
+
+    private final int blockSize;
+    private final int readAheadBlocks;
+    private final Executor readAheadExecutor;
+    private final ConcurrentLRUCache<BlockKey, ByteBuffer> blocks = new ConcurrentLRUCache<>();
+    private final ConcurrentHashMap<BlockKey, CompletableFuture<ByteBuffer>> inFlightReads =
+            new ConcurrentHashMap<>();
+    /* index of the block following the last range read, by path */
+    private final Map<String, Long> streams;
+
+    /**
+     * @param blockSize the size of a block, in bytes
+     * @param maxBlocks the number of blocks kept in memory
+     * @param readAheadBlocks the number of blocks read ahead of sequential reads, 0 for none
+     * @param readAheadExecutor the executor reading blocks ahead
+     */
+    public BlockCache(int blockSize, int maxBlocks, int readAheadBlocks,
+                      Executor readAheadExecutor) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        }
+        this.blockSize = blockSize;
+        this.readAheadBlocks = readAheadBlocks;
+        this.readAheadExecutor = readAheadExecutor;
+        this.streams = new LinkedHashMap<String, Long>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > MAX_STREAMS;
+            }
+        };
+
+        blocks.setStalePolicy(new CacheStalePolicy<BlockKey, ByteBuffer>() {
+            @Override
+            public boolean shouldRemoveEldestEntry(Pair<BlockKey, ByteBuffer> entry) {
+                return blocks.size() > maxBlocks;
+            }
+        });
+    }
+
+    /**
+     * Read a range of a file through the cache. A range within a single block is a view of the
+     * cached block, a larger one is copied from its blocks.
+     *
+     * @param path the path of the file
+     * @param offset the position of the range in the file
+     * @param length the length of the range
+     * @return a read-only buffer holding the range, shorter than length if the file ends before
+     * @throws IOException if a block missed the cache and could not be read
+     */
+    public ByteBuffer read(String path, long offset, int length) throws IOException {
+        if (offset < 0 || length < 0) {
+            throw new IllegalArgumentException("Invalid range: " + offset + ", " + length);
+        }
+        if (length == 0) {
+            return ByteBuffer.allocate(0).asReadOnlyBuffer();
+        }
+        long firstBlock = offset / blockSize;
+        long lastBlock = (offset + length - 1) / blockSize;
+        ByteBuffer range = null;
+        boolean endOfFile = false;
+
+        for (long index = firstBlock; index <= lastBlock && !endOfFile; index++) {
+            ByteBuffer block = getBlock(path, index);
+            long blockStart = index * blockSize;
+            int start = (int) Math.max(0, offset - blockStart);
+            int end = (int) Math.min(block.limit(), offset + length - blockStart);
+
+            endOfFile = block.limit() < blockSize;
+            if (start >= end) {
+                break;
+            }
+            block.limit(end);
+            block.position(start);
+            if (firstBlock == lastBlock) {
+                range = block.slice();
+            } else {
+                if (range == null) {
+                    range = ByteBuffer.allocate(length);
+                }
+                range.put(block);
+            }
+        }
+        if (!endOfFile) {
+            readAhead(path, firstBlock, lastBlock);
+        }
+        if (range == null) { /* the range starts past the end of the file */
+            return ByteBuffer.allocate(0).asReadOnlyBuffer();
+        }
+        if (firstBlock != lastBlock) {
+            range.flip();
+        }
+        return range.asReadOnlyBuffer();
+    }
+
+    /**
+     * Get a block, as a buffer of its own over the cached bytes.
+     */
+    private ByteBuffer getBlock(String path, long index) throws IOException {
+        BlockKey key = new BlockKey(path, index);
+        ByteBuffer block = blocks.get(key);
+
+        if (block == null) {
+            try {
+                block = loadBlock(key, Runnable::run).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof UncheckedIOException) {
+                    throw ((UncheckedIOException) e.getCause()).getCause();
+                }
+                throw e;
+            }
+        }
+        return block.duplicate();
+    }
+
+    private void readAhead(String path, long firstBlock, long lastBlock) {
+        boolean sequential;
+
+        synchronized (streams) {
+            Long expected = streams.put(path, lastBlock + 1);
+            /* the range may start in the block the previous one ended in */
+            sequential = expected != null && (firstBlock == expected || firstBlock == expected - 1);
+        }
+        if (!sequential) {
+            return;
+        }
+        long fileBlocks = -1;
+        for (long index = lastBlock + 1; index <= lastBlock + readAheadBlocks; index++) {
+            BlockKey key = new BlockKey(path, index);
+            if (!blocks.containsKey(key) && !inFlightReads.containsKey(key)) {
+                if (fileBlocks < 0) { /* stat only once a block has to be read */
+                    fileBlocks = countBlocks(path);
+                }
+                if (index >= fileBlocks) { /* past the end of the file */
+                    return;
+                }
+                loadBlock(key, readAheadExecutor); /* a failure is reported to the real read */
+            }
+        }
+    }
+
+    private long countBlocks(String path) {
+        try {
+            return (Files.size(Paths.get(path)) + blockSize - 1) / blockSize;
+        } catch (IOException e) { /* reported to the real read, if there is one */
+            return 0;
+        }
+    }
+
+    /**
+     * Read a block that missed the cache and put it in the cache, unless someone else already
+     * does.
+     */
+    private CompletableFuture<ByteBuffer> loadBlock(BlockKey key, Executor executor) {
+        CompletableFuture<ByteBuffer> read = new CompletableFuture<>();
+        CompletableFuture<ByteBuffer> inFlightRead = inFlightReads.putIfAbsent(key, read);
+
+        if (inFlightRead != null) {
+            return inFlightRead;
+        }
+        executor.execute(() -> {
+            try {
+                ByteBuffer block = readBlock(key);
+                if (block.hasRemaining()) { /* empty blocks would only evict real ones */
+                    blocks.put(key, block);
+                }
+                read.complete(block);
+            } catch (IOException e) {
+                read.completeExceptionally(new UncheckedIOException("Could not read " + key, e));
+            } catch (RuntimeException e) {
+                read.completeExceptionally(e);
+            } finally {
+                inFlightReads.remove(key, read);
+            }
+        });
+        return read;
+    }
+
+    private ByteBuffer readBlock(BlockKey key) throws IOException {
+        ByteBuffer block = ByteBuffer.allocate(blockSize);
+        long blockStart = key.index * blockSize;
+
+        try (FileChannel channel = FileChannel.open(Paths.get(key.path),
+                StandardOpenOption.READ)) {
+            while (block.hasRemaining()
+                    && channel.read(block, blockStart + block.position()) >= 0) {
+                /* keep reading until the block is full or the file ends */
+            }
+        }
+        block.flip();
+        if (block.limit() < blockSize) { /* the last block of the file, don't keep it padded */
+            block = ByteBuffer.allocate(block.limit()).put(block);
+            block.flip();
+        }
+        return block.asReadOnlyBuffer();
+    }
+
+    /**
+     * A block of a file.
+     */
+    private static final class BlockKey {
+        private final String path;
+        private final long index;
+
+        BlockKey(String path, long index) {
+            this.path = path;
+            this.index = index;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof BlockKey)) {
+                return false;
+            }
+            BlockKey block = (BlockKey) other;
+            return index == block.index && path.equals(block.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * path.hashCode() + Long.hashCode(index);
+        }
+
+        @Override
+        public String toString() {
+            return path + " block " + index;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package cachingSystem.classes;
+
+import dataStructures.classes.Pair;
+import dataStructures.classes.TimeAwareNode;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Snapshot of the entries of a cache of files, from the least to the most recently used, so a
+ * restarted cache starts warm. Taking a snapshot only retains the contents of the entries, which
+ * is cheap enough to do under the lock of the cache; the file is written afterwards, to a
+ * temporary file first, then moved over the previous snapshot, so a crash never leaves half a
+ * snapshot behind.
+ * A snapshot read back is memory-mapped rather than parsed into Strings: the restored entries
+ * point into the mapping, and their contents are only decoded when they are read.
+ *
+ * The file holds a header (MAGIC, VERSION, number of entries), then for every entry: the length
+ * and UTF-8 bytes of its key, the time it was created at, the last modified time and size of its
+ * file, and the length and UTF-8 bytes of its contents.
+ */
+public class CacheSnapshot {
+    private static final int MAGIC = 0x46435331; /* "FCS1" */
+    private static final int VERSION = 1;
+
+    private final List<Entry> entries = new ArrayList<>();
+
+    /**
+     * Add the entry of a node to the snapshot, retaining its contents until the snapshot is
+     * written. Meant to be given to LRUCache.forEachEldestFirst.
+     *
+     * @param node the node of the entry
+     */
+    public void add(TimeAwareNode<Pair<String, FileContents>> node) {
+        FileContents contents = node.getData().getValue();
+
+        if (contents.retain()) { /* otherwise it's being freed, leave it out */
+            entries.add(new Entry(node.getData().getKey(), contents, node.getCreatedMillis()));
+        }
+    }
+
+    /**
+     * Get the number of entries in the snapshot.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Write the snapshot to a file, replacing it atomically, and release the contents it
+     * retained. A snapshot can only be written once.
+     *
+     * @param file the file the snapshot is written to
+     * @throws IOException if the snapshot could not be written; the previous one is then kept
+     */
+    public void writeTo(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                ByteBuffer header = ByteBuffer.allocate(3 * Integer.BYTES);
+                header.putInt(MAGIC).putInt(VERSION).putInt(entries.size()).flip();
+                write(channel, header);
+                for (Entry entry : entries) {
+                    byte[] key = entry.key.getBytes(StandardCharsets.UTF_8);
+                    /* written straight from where the contents keep their bytes, if they do */
+                    ByteBuffer contents = entry.contents.asByteBuffer();
+                    ByteBuffer fields = ByteBuffer.allocate(
+                            2 * Integer.BYTES + key.length + 3 * Long.BYTES);
+                    fields.putInt(key.length).put(key)
+                            .putLong(entry.createdMillis)
+                            .putLong(entry.contents.getLastModified())
+                            .putLong(entry.contents.getFileSize())
+                            .putInt(contents.remaining())
+                            .flip();
+                    write(channel, fields, contents);
+                }
+                channel.force(true); /* the data must be on disk before the move makes it visible */
+            }
+            try {
+                Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+            for (Entry entry : entries) {
+                entry.contents.release();
+            }
+            entries.clear();
+        }
+    }
+
+    /**
+     * Read a snapshot back by mapping its file. The contents of the entries stay in the mapping.
+     *
+     * @param file the file the snapshot was written to
+     * @return the snapshot
+     * @throws IOException if the file could not be read or is not a valid snapshot
+     */
+    public static CacheSnapshot readFrom(Path file) throws IOException {
+        MappedByteBuffer buffer;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot too large to be mapped: " + file);
+            }
+            /* the mapping stays valid after the channel is closed */
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Not a cache snapshot: " + file);
+            }
+            CacheSnapshot snapshot = new CacheSnapshot();
+            int count = buffer.getInt();
+            long nanoTime = System.nanoTime();
+            long currentMillis = System.currentTimeMillis();
+            for (int i = 0; i < count; i++) {
+                String key = StandardCharsets.UTF_8.decode(readBytes(buffer)).toString();
+                long createdMillis = buffer.getLong();
+                long lastModified = buffer.getLong();
+                long fileSize = buffer.getLong();
+                FileContents contents = new MappedFileContents(readBytes(buffer));
+                /* count the contents as validated when they were loaded, so those older than the
+                   revalidation interval are checked against their file on the first read */
+                contents.setFileMetadata(lastModified, fileSize, nanoTime
+                        - TimeUnit.MILLISECONDS.toNanos(currentMillis - createdMillis));
+                snapshot.entries.add(new Entry(key, contents, createdMillis));
+            }
+            return snapshot;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Truncated cache snapshot: " + file, e);
+        }
+    }
+
+    /**
+     * Put the entries of the snapshot in a cache, from the least to the most recently used, and
+     * release the references the entries that could not be restored hold.
+     *
+     * @param cache the cache, which must not be used concurrently
+     * @return the keys of the entries that were restored
+     */
+    public List<String> restoreInto(LRUCache<String, FileContents> cache) {
+        List<String> restored = new ArrayList<>(entries.size());
+
+        for (Entry entry : entries) {
+            if (cache.restore(entry.key, entry.contents, entry.createdMillis)) {
+                restored.add(entry.key);
+            } else {
+                entry.contents.release();
+            }
+        }
+        entries.clear();
+        return restored;
+    }
+
+    private static void write(FileChannel channel, ByteBuffer... buffers) throws IOException {
+        while (buffers[buffers.length - 1].hasRemaining()) {
+            channel.write(buffers);
+        }
+    }
+
+    private static ByteBuffer readBytes(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        ByteBuffer bytes = buffer.slice();
+
+        bytes.limit(length); /* throws IllegalArgumentException past the end of the snapshot */
+        buffer.position(buffer.position() + length);
+        return bytes.asReadOnlyBuffer();
+    }
+
+    /**
+     * An entry of the snapshot.
+     */
+    private static final class Entry {
+        private final String key;
+        private final FileContents contents;
+        private final long createdMillis;
+
+        Entry(String key, FileContents contents, long createdMillis) {
+            this.key = key;
+            this.contents = contents;
+            this.createdMillis = createdMillis;
+        }
+    }
+}
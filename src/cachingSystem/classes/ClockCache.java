@@ -0,0 +1,227 @@
+package cachingSystem.classes;
+
+import dataStructures.classes.Pair;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * CLOCK cache, an approximation of LRU with a read-only hit path. Entries sit in the slots of a
+ * ring; a hit does a single hash lookup and sets the visited bit of the entry, nothing else. To
+ * find a victim, a hand sweeps the ring, giving every visited entry a second chance by clearing
+ * its bit, and stops at the first entry that was not visited since the last sweep.
+ * Reads are lock-free; writes and the hand are guarded by a single lock, so the cache is
+ * thread-safe.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class ClockCache<K, V> extends ObservableCache<K, V> {
+    private final ConcurrentHashMap<K, Entry<K, V>> cacheMap = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /* guarded by lock */
+    private Entry<K, V>[] ring;
+    private int[] freeSlots;
+    private int freeCount;
+    private int hand;
+
+    /**
+     * @param capacity the number of entries the ring starts with; it grows if needed
+     */
+    public ClockCache(int capacity) {
+        int slots = Math.max(capacity, 1) + 1; /* a put may exceed the capacity before evicting */
+        @SuppressWarnings({"unchecked", "rawtypes"}) /* no generic array creation */
+        Entry<K, V>[] newRing = (Entry<K, V>[]) new Entry[slots];
+        ring = newRing;
+        freeSlots = new int[slots];
+        for (int i = 0; i < slots; i++) {
+            freeSlots[i] = slots - 1 - i;
+        }
+        freeCount = slots;
+    }
+
+    /**
+     * Get a value from cache using a key. If the key isn't found, onMiss events are triggered.
+     * @param key the key used to get a value
+     * @return the value that we got for that key
+     */
+    public V get(K key) {
+        Entry<K, V> entry = cacheMap.get(key);
+
+        if (entry == null) {
+            cacheListener.onMiss(key);
+            return null;
+        }
+        if (!entry.visited) { /* only write when the bit flips, hot entries stay read-only */
+            entry.visited = true;
+        }
+        cacheListener.onHit(key);
+
+        return entry.value;
+    }
+
+    /**
+     *  Put a (key, value) pair in the cache memory.
+     *  @param key the key put in the cache
+     *  @param value the value put in the cache
+     */
+    public void put(K key, V value) {
+        lock.lock();
+        try {
+            Entry<K, V> entry = cacheMap.get(key);
+
+            if (entry == null) {
+                entry = new Entry<>(key, value, takeFreeSlot());
+                ring[entry.slot] = entry;
+                cacheMap.put(key, entry);
+                recordInsertion(key, value);
+            } else {
+                if (entry.value != value) {
+                    recordRemoval(key, entry.value);
+                    entry.value = value;
+                    recordInsertion(key, value);
+                }
+                entry.visited = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+        cacheListener.onPut(key, value);
+        clearStaleEntries();
+    }
+
+    /**
+     * tell whether a key is in the cache, without triggering events or counting as an access.
+     * @param key the key
+     * @return true if the cache holds a value for the key
+     */
+    @Override
+    public boolean containsKey(K key) {
+        return cacheMap.containsKey(key);
+    }
+    /**
+     * get the size of the cache memory.
+     * @return the cache's size
+     */
+    public int size() {
+        return cacheMap.size();
+    }
+
+    /**
+     * return if the cache memory is empty or not.
+     * @return the empty status of the cache
+     */
+    public boolean isEmpty() {
+        return cacheMap.isEmpty();
+    }
+
+    /**
+     * remove an element from the memory using it's key.
+     * @param key the key of the element that will be removed
+     * @return the value for the removed key
+     */
+    public V remove(K key) {
+        if (key == null) {
+            return null;
+        }
+        lock.lock();
+        try {
+            Entry<K, V> entry = cacheMap.remove(key);
+            if (entry == null) {
+                return null;
+            }
+            ring[entry.slot] = null;
+            freeSlots[freeCount++] = entry.slot;
+            recordRemoval(key, entry.value);
+            return entry.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     *  remove all elements from the cache.
+     */
+    public void clearAll() {
+        for (K key : cacheMap.keySet()) {
+            remove(key);
+        }
+    }
+
+    /**
+     * Return the entry under the hand once it stops on an entry that was not visited. Visited
+     * entries the hand passes over lose their bit, this is how CLOCK ages them.
+     * @return the entry to evict next
+     */
+    public Pair<K, V> getEldestEntry() {
+        lock.lock();
+        try {
+            if (cacheMap.isEmpty()) {
+                return null;
+            }
+            for (;;) {
+                Entry<K, V> entry = ring[hand];
+                if (entry != null) {
+                    if (!entry.visited) {
+                        return new Pair<K, V>(entry.key, entry.value);
+                    }
+                    entry.visited = false;
+                }
+                hand = (hand + 1) % ring.length;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+    /**
+     * Evictions are serialized by the lock, so two writers never pick the same victim.
+     */
+    @Override
+    protected void maintain() {
+        if (stalePolicy == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            super.maintain();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int takeFreeSlot() {
+        if (freeCount == 0) { /* the ring is full, e.g. for a weight-bounded cache, grow it */
+            int oldLength = ring.length;
+            ring = Arrays.copyOf(ring, 2 * oldLength);
+            freeSlots = new int[ring.length];
+            for (int i = ring.length - 1; i >= oldLength; i--) {
+                freeSlots[freeCount++] = i;
+            }
+        }
+        return freeSlots[--freeCount];
+    }
+
+    /**
+     * Entry of the cache. The value and visited bit are volatile, so readers need no lock.
+     */
+    private static final class Entry<K, V> {
+        private final K key;
+        private final int slot;
+        private volatile V value;
+        private volatile boolean visited;
+
+        Entry(K key, V value, int slot) {
+            this.key = key;
+            this.value = value;
+            this.slot = slot;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package cachingSystem.classes;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * File contents kept as Deflate-compressed UTF-8 bytes on the heap. Decoding them goes through
+ * the side cache of the store that compressed them, and only inflates them on a miss there.
+ */
+public class CompressedFileContents extends FileContents {
+    /* rough size of the array header */
+    private static final long ARRAY_OVERHEAD = 16;
+
+    private final CompressingContentsStore store;
+    private final byte[] compressed;
+    private final int length;
+
+    /**
+     * @param store the store whose side cache keeps the decoded copy
+     * @param compressed the compressed bytes
+     * @param length the number of bytes once inflated
+     */
+    public CompressedFileContents(CompressingContentsStore store, byte[] compressed, int length) {
+        this.store = store;
+        this.compressed = compressed;
+        this.length = length;
+    }
+
+    @Override
+    public String asString() {
+        String decoded = store.getDecompressed(this);
+
+        if (decoded == null) {
+            decoded = new String(inflate(), StandardCharsets.UTF_8);
+            store.putDecompressed(this, decoded);
+        }
+        return decoded;
+    }
+
+    /**
+     * The bytes are inflated into a new buffer, the side cache only keeps decoded Strings.
+     */
+    @Override
+    public ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(inflate()).asReadOnlyBuffer();
+    }
+
+    @Override
+    public long weight() {
+        return ARRAY_OVERHEAD + compressed.length;
+    }
+
+    @Override
+    protected void deallocate() {
+        store.dropDecompressed(this);
+    }
+
+    private byte[] inflate() {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] bytes = new byte[length];
+            int inflated = 0;
+            while (inflated < length && !inflater.finished()) {
+                int count = inflater.inflate(bytes, inflated, length - inflated);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                inflated += count;
+            }
+            if (inflated != length) {
+                throw new IllegalStateException("Compressed contents are truncated");
+            }
+            return bytes;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Compressed contents are corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package cachingSystem.classes;
+
+import cachingSystem.interfaces.CacheStalePolicy;
+import cachingSystem.interfaces.ContentsStore;
+import cachingSystem.interfaces.Weigher;
+import dataStructures.classes.Pair;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+
+/**
+ * Store keeping the contents of files compressed with Deflate, so the same budget holds several
+ * times more text files. Each file is decided on its own: contents below minBytes, or that don't
+ * shrink by at least an eighth, are kept as they are. Decoding compressed contents means inflating
+ * them, so the decoded copies of the last files read are kept in a small side cache, bounded by
+ * their size and not counted in the weight of the entries.
+ */
+public class CompressingContentsStore implements ContentsStore {
+    /* fast compression is enough for text, and keeps loads cheap */
+    private static final int LEVEL = Deflater.BEST_SPEED;
+
+    private final ContentsStore rawStore;
+    private final int minBytes;
+    private final LRUCache<CompressedFileContents, String> decompressed = new LRUCache<>();
+
+    /**
+     * @param minBytes the size, in bytes, from which contents are worth compressing
+     * @param sideCacheBytes the most memory the decoded copies of compressed contents may take
+     */
+    public CompressingContentsStore(int minBytes, long sideCacheBytes) {
+        this(new HeapContentsStore(), minBytes, sideCacheBytes);
+    }
+
+    /**
+     * @param rawStore the store keeping the contents that are not compressed
+     * @param minBytes the size, in bytes, from which contents are worth compressing
+     * @param sideCacheBytes the most memory the decoded copies of compressed contents may take
+     */
+    public CompressingContentsStore(ContentsStore rawStore, int minBytes, long sideCacheBytes) {
+        this.rawStore = rawStore;
+        this.minBytes = minBytes;
+
+        decompressed.setWeigher(new Weigher<CompressedFileContents, String>() {
+            @Override
+            public long weigh(CompressedFileContents key, String value) {
+                return (long) Character.BYTES * value.length();
+            }
+        });
+        decompressed.setStalePolicy(new CacheStalePolicy<CompressedFileContents, String>() {
+            @Override
+            public boolean shouldRemoveEldestEntry(Pair<CompressedFileContents, String> entry) {
+                return decompressed.weightedSize() > sideCacheBytes;
+            }
+        });
+    }
+
+    @Override
+    public FileContents store(String contents) {
+        byte[] bytes = contents.getBytes(StandardCharsets.UTF_8);
+
+        if (bytes.length < minBytes) {
+            return rawStore.store(contents);
+        }
+        Deflater deflater = new Deflater(LEVEL);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            /* only as much room as a worthwhile result needs, a larger one doesn't finish */
+            byte[] output = new byte[bytes.length - bytes.length / 8];
+            int length = deflater.deflate(output);
+            if (!deflater.finished()) {
+                return rawStore.store(contents);
+            }
+            byte[] compressed = new byte[length];
+            System.arraycopy(output, 0, compressed, 0, length);
+            return new CompressedFileContents(this, compressed, bytes.length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Get the number of decoded copies kept in the side cache.
+     *
+     * @return the number of decoded copies
+     */
+    public int getDecompressedCount() {
+        synchronized (decompressed) {
+            return decompressed.size();
+        }
+    }
+
+    String getDecompressed(CompressedFileContents contents) {
+        synchronized (decompressed) { /* contents are decoded outside of the FileCache lock */
+            return decompressed.containsKey(contents) ? decompressed.get(contents) : null;
+        }
+    }
+
+    void putDecompressed(CompressedFileContents contents, String decoded) {
+        synchronized (decompressed) {
+            decompressed.put(contents, decoded);
+        }
+    }
+
+    void dropDecompressed(CompressedFileContents contents) {
+        synchronized (decompressed) {
+            if (decompressed.containsKey(contents)) {
+                decompressed.remove(contents);
+            }
+        }
+    }
+}
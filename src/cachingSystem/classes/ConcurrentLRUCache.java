@@ -0,0 +1,304 @@
+package cachingSystem.classes;
+
+import dataStructures.classes.Pair;
+import dataStructures.classes.StripedReadBuffer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Thread-safe LRU cache. Reads are lock-free: the key is looked up in a ConcurrentHashMap and the
+ * access is only recorded in a striped buffer. New entries are queued in a write buffer as well.
+ * The recency list is guarded by a single lock and is brought up to date in batches, together with
+ * the evictions, by whichever thread gets the lock without waiting; neither readers nor writers
+ * ever block on it, and a maintenance scheduler can take the batches off their threads entirely.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class ConcurrentLRUCache<K, V> extends ObservableCache<K, V> {
+
+    private final ConcurrentHashMap<K, Node<K, V>> cacheMap = new ConcurrentHashMap<>();
+    private final StripedReadBuffer<Node<K, V>> readBuffer = new StripedReadBuffer<>();
+    private final ConcurrentLinkedQueue<Node<K, V>> writeBuffer = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final Consumer<Node<K, V>> accessRecorder = this::moveToHead;
+
+    /* recency list, guarded by evictionLock; the head is the most recently used node */
+    private Node<K, V> head;
+    private Node<K, V> tail;
+    /* set when buffered work is waiting, so the lock holder does one more pass before leaving */
+    private volatile boolean drainRequested;
+
+    /**
+     * Get a value from cache using a key. If the key isn't found, onMiss events are triggered.
+     * @param key the key used to get a value
+     * @return the value that we got for that key
+     */
+    public V get(K key) {
+        Node<K, V> node = cacheMap.get(key);
+
+        if (node == null) {
+            cacheListener.onMiss(key);
+            return null;
+        }
+        V gottenValue = node.value;
+        afterRead(node);
+        cacheListener.onHit(key);
+
+        return gottenValue;
+    }
+
+    /**
+     *  Put a (key, value) pair in the cache memory.
+     *  @param key the key put in the cache
+     *  @param value the value put in the cache
+     */
+    public void put(K key, V value) {
+        for (;;) {
+            Node<K, V> node = cacheMap.get(key);
+
+            if (node == null) { /* try to add a new node, someone may beat us to it */
+                Node<K, V> newNode = new Node<>(key, value);
+                node = cacheMap.putIfAbsent(key, newNode);
+                if (node == null) {
+                    recordInsertion(key, value);
+                    writeBuffer.add(newNode); /* linked in by the next maintenance pass */
+                    break;
+                }
+            }
+            synchronized (node) { /* update in place, unless the node was removed meanwhile */
+                if (node.alive) {
+                    if (node.value != value) {
+                        recordRemoval(key, node.value);
+                        node.value = value;
+                        recordInsertion(key, value);
+                    }
+                    afterRead(node);
+                    break;
+                }
+            }
+        }
+        cacheListener.onPut(key, value);
+        clearStaleEntries();
+    }
+
+    /**
+     * tell whether a key is in the cache, without triggering events or counting as an access.
+     * @param key the key
+     * @return true if the cache holds a value for the key
+     */
+    @Override
+    public boolean containsKey(K key) {
+        return cacheMap.containsKey(key);
+    }
+    /**
+     * get the size of the cache memory.
+     * @return the cache's size
+     */
+    public int size() {
+        return cacheMap.size();
+    }
+
+    /**
+     * return if the cache memory is empty or not.
+     * @return the empty status of the cache
+     */
+    public boolean isEmpty() {
+        return cacheMap.isEmpty();
+    }
+
+    /**
+     * remove an element from the memory using it's key.
+     * @param key the key of the element that will be removed
+     * @return the value for the removed key
+     */
+    public V remove(K key) {
+        if (key == null) {
+            return null;
+        }
+        Node<K, V> node = cacheMap.remove(key);
+        if (node == null) {
+            return null;
+        }
+        V returnValue;
+        synchronized (node) {
+            node.alive = false;
+            returnValue = node.value;
+        }
+        recordRemoval(key, returnValue);
+        evictionLock.lock();
+        try {
+            unlink(node);
+        } finally {
+            unlockEviction();
+        }
+        return returnValue;
+    }
+
+    /**
+     *  remove all elements from the cache.
+     */
+    public void clearAll() {
+        for (K key : cacheMap.keySet()) {
+            remove(key);
+        }
+    }
+
+    /**
+     *  return the least recently used pair of (key,value) from cache.
+     *  @return the oldest pair
+     */
+    public Pair<K, V> getEldestEntry() {
+        evictionLock.lock();
+        try {
+            drainBuffers();
+            return tail == null ? null : new Pair<K, V>(tail.key, tail.value);
+        } finally {
+            unlockEviction();
+        }
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+    /**
+     * Apply the buffered accesses and inserts, then evict. Only a thread that gets the eviction
+     * lock without waiting does the work; the others leave a request that the lock holder picks
+     * up right after it lets go, so nothing is lost and nobody blocks.
+     */
+    @Override
+    protected void maintain() {
+        drainRequested = true;
+        tryDrain();
+    }
+
+    private void tryDrain() {
+        while (drainRequested && evictionLock.tryLock()) {
+            try {
+                drainRequested = false;
+                drainBuffers();
+                super.maintain();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Evict the tail the eldest entry was read from. A concurrent remove may already have taken
+     * its key out of the map, or a new node may have been put under it, so only the tail node
+     * itself is dropped. Called from maintain, with the eviction lock held.
+     */
+    @Override
+    protected boolean evictEntry(Pair<K, V> eldest) {
+        Node<K, V> node = tail;
+
+        if (node == null) {
+            return false;
+        }
+        boolean evicted = cacheMap.remove(node.key, node);
+        if (evicted) {
+            V removedValue;
+            synchronized (node) {
+                node.alive = false;
+                removedValue = node.value;
+            }
+            recordRemoval(node.key, removedValue);
+        }
+        unlink(node);
+        return evicted;
+    }
+
+    private void afterRead(Node<K, V> node) {
+        if (readBuffer.offer(node) && evictionLock.tryLock()) {
+            try {
+                readBuffer.drainTo(accessRecorder);
+            } finally {
+                unlockEviction();
+            }
+        }
+    }
+
+    /**
+     * Let go of the eviction lock taken outside of maintain, then do the maintenance requested
+     * meanwhile by the threads that could not get the lock.
+     */
+    private void unlockEviction() {
+        evictionLock.unlock();
+        if (!evictionLock.isHeldByCurrentThread()) { /* not nested in a maintenance pass */
+            tryDrain();
+        }
+    }
+
+    /* the methods below must be called while holding evictionLock */
+
+    private void drainBuffers() {
+        readBuffer.drainTo(accessRecorder);
+        for (Node<K, V> node = writeBuffer.poll(); node != null; node = writeBuffer.poll()) {
+            if (node.alive && !node.linked) { /* a concurrent remove may have won the race */
+                linkHead(node);
+            }
+        }
+    }
+
+    private void moveToHead(Node<K, V> node) {
+        if (node.linked && node != head) {
+            unlink(node);
+            linkHead(node);
+        }
+    }
+
+    private void linkHead(Node<K, V> node) {
+        node.prev = null;
+        node.next = head;
+        if (head == null) {
+            tail = node;
+        } else {
+            head.prev = node;
+        }
+        head = node;
+        node.linked = true;
+    }
+
+    private void unlink(Node<K, V> node) {
+        if (!node.linked) {
+            return;
+        }
+        if (node.prev == null) {
+            head = node.next;
+        } else {
+            node.prev.next = node.next;
+        }
+        if (node.next == null) {
+            tail = node.prev;
+        } else {
+            node.next.prev = node.prev;
+        }
+        node.prev = null;
+        node.next = null;
+        node.linked = false;
+    }
+
+    /**
+     * Entry of the cache. The value is published through a volatile field so that readers never
+     * lock; prev / next / linked belong to the recency list and are guarded by the eviction lock.
+     */
+    private static final class Node<K, V> {
+        private final K key;
+        private volatile V value;
+        private volatile boolean alive = true;
+        private Node<K, V> prev;
+        private Node<K, V> next;
+        private boolean linked;
+
+        Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package cachingSystem.classes;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Read-only channel over the UTF-8 bytes of cached contents. The channel holds a reference to
+ * the contents until it is closed, so they stay valid even if the cache evicts them meanwhile;
+ * transferTo writes the bytes straight from where the contents keep them, e.g. off-heap memory or
+ * a mapped file, without copying them to the heap first. Contents kept as a String are encoded
+ * on the fly, a chunk at a time, so no encoded copy of the whole file is ever made.
+ */
+public class ContentsChannel implements SeekableByteChannel {
+    private static final int CHUNK_BYTES = 8192;
+
+    private final FileContents contents;
+    /* the bytes of contents that hold them, null for contents encoded on the fly */
+    private final ByteBuffer bytes;
+    /* contents encoded on the fly: the chunk of bytes encoded last, and the next char to encode */
+    private final String chars;
+    private final CharsetEncoder encoder;
+    private final ByteBuffer chunk;
+    private int charIndex;
+    private long position;
+    private long size = -1;
+    private boolean open = true;
+
+    /**
+     * @param contents the contents, whose reference now belongs to the channel
+     */
+    public ContentsChannel(FileContents contents) {
+        this.contents = contents;
+        if (contents.holdsBytes()) {
+            this.bytes = contents.asByteBuffer();
+            this.chars = null;
+            this.encoder = null;
+            this.chunk = null;
+        } else {
+            this.bytes = null;
+            this.chars = contents.asString();
+            /* replace unpaired surrogates like String.getBytes does */
+            this.encoder = StandardCharsets.UTF_8.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            this.chunk = ByteBuffer.allocate((int) Math.min(CHUNK_BYTES,
+                    Math.max(4, 3L * chars.length())));
+            this.chunk.limit(0);
+        }
+    }
+
+    @Override
+    public synchronized int read(ByteBuffer destination) throws IOException {
+        ensureOpen();
+        if (bytes != null) {
+            if (!bytes.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(destination.remaining(), bytes.remaining());
+            ByteBuffer slice = bytes.duplicate();
+
+            slice.limit(slice.position() + count);
+            destination.put(slice);
+            bytes.position(bytes.position() + count);
+            return count;
+        }
+        if (!fillChunk()) {
+            return -1;
+        }
+        int count = 0;
+
+        while (destination.hasRemaining() && fillChunk()) {
+            int copied = Math.min(destination.remaining(), chunk.remaining());
+            ByteBuffer slice = chunk.duplicate();
+
+            slice.limit(slice.position() + copied);
+            destination.put(slice);
+            chunk.position(chunk.position() + copied);
+            count += copied;
+        }
+        position += count;
+        return count;
+    }
+
+    /**
+     * Write the bytes left in the channel to a target channel. A non-blocking target is written
+     * until it takes no more, the rest can be transferred once it is writable again.
+     *
+     * @param target the channel written to
+     * @return the number of bytes written
+     * @throws IOException if the channel is closed or the target could not be written
+     */
+    public synchronized long transferTo(WritableByteChannel target) throws IOException {
+        ensureOpen();
+        long written = 0;
+
+        if (bytes != null) {
+            while (bytes.hasRemaining()) {
+                int count = target.write(bytes);
+                if (count == 0) {
+                    break;
+                }
+                written += count;
+            }
+            return written;
+        }
+        while (fillChunk()) {
+            int count = target.write(chunk); /* what the target didn't take stays in the chunk */
+            if (count == 0) {
+                break;
+            }
+            written += count;
+        }
+        position += written;
+        return written;
+    }
+
+    @Override
+    public int write(ByteBuffer source) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public synchronized long position() throws IOException {
+        ensureOpen();
+        return bytes != null ? bytes.position() : position;
+    }
+
+    @Override
+    public synchronized SeekableByteChannel position(long newPosition) throws IOException {
+        ensureOpen();
+        if (newPosition < 0) {
+            throw new IllegalArgumentException("Negative position: " + newPosition);
+        }
+        if (bytes != null) {
+            bytes.position((int) Math.min(newPosition, bytes.limit()));
+        } else if (newPosition != position) {
+            seek(newPosition);
+        }
+        return this;
+    }
+
+    @Override
+    public synchronized long size() throws IOException {
+        ensureOpen();
+        if (bytes != null) {
+            return bytes.limit();
+        }
+        if (size < 0) {
+            size = encodedLength();
+        }
+        return size;
+    }
+
+    @Override
+    public SeekableByteChannel truncate(long size) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public synchronized boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Release the contents, the channel can't be read afterwards.
+     */
+    @Override
+    public synchronized void close() {
+        if (open) {
+            open = false;
+            contents.release();
+        }
+    }
+
+    private void ensureOpen() throws ClosedChannelException {
+        if (!open) {
+            throw new ClosedChannelException();
+        }
+    }
+
+    /**
+     * Encode the next chunk of chars if the current one was consumed.
+     *
+     * @return false once every char was encoded and consumed
+     */
+    private boolean fillChunk() {
+        if (chunk.hasRemaining()) {
+            return true;
+        }
+        if (charIndex >= chars.length()) {
+            return false;
+        }
+        CharBuffer input = CharBuffer.wrap(chars, charIndex, chars.length());
+
+        chunk.clear();
+        encoder.reset();
+        encoder.encode(input, chunk, true); /* stops before a char that doesn't fit, never in it */
+        charIndex = input.position();
+        chunk.flip();
+        return true;
+    }
+
+    /**
+     * Move to a byte position by counting the encoded length of the chars before it, without
+     * encoding them.
+     */
+    private void seek(long newPosition) {
+        int index = 0;
+        long skipped = 0;
+
+        while (index < chars.length()) {
+            int next = nextCodePoint(index);
+            long length = encodedLength(index, next);
+            if (skipped + length > newPosition) {
+                break;
+            }
+            skipped += length;
+            index = next;
+        }
+        charIndex = index;
+        chunk.limit(0);
+        position = newPosition;
+        if (skipped < newPosition && fillChunk()) { /* the position is inside a char */
+            chunk.position((int) Math.min(chunk.limit(), newPosition - skipped));
+        }
+        if (index == chars.length()) {
+            position = skipped; /* past the end, like the byte view, the position stops there */
+        }
+    }
+
+    private long encodedLength() {
+        long length = 0;
+
+        for (int index = 0; index < chars.length(); ) {
+            int next = nextCodePoint(index);
+            length += encodedLength(index, next);
+            index = next;
+        }
+        return length;
+    }
+
+    /**
+     * Get the UTF-8 length of the code point between two char indexes; an unpaired surrogate is
+     * encoded as a single replacement byte.
+     */
+    private long encodedLength(int index, int next) {
+        char c = chars.charAt(index);
+
+        if (next - index == 2) {
+            return 4;
+        }
+        if (c < 0x80 || Character.isSurrogate(c)) {
+            return 1;
+        }
+        return c < 0x800 ? 2 : 3;
+    }
+
+    private int nextCodePoint(int index) {
+        if (Character.isHighSurrogate(chars.charAt(index)) && index + 1 < chars.length()
+                && Character.isLowSurrogate(chars.charAt(index + 1))) {
+            return index + 2;
+        }
+        return index + 1;
+    }
+}
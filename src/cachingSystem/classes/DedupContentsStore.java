@@ -0,0 +1,91 @@
+package cachingSystem.classes;
+
+import cachingSystem.interfaces.ContentsStore;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Store keeping identical contents only once, e.g. for files copied or linked under several
+ * paths. Contents are keyed by their SHA-256 digest: the first file with a digest stores the
+ * contents in the underlying store as a blob, the next ones get a handle to the same blob. A blob
+ * counts the handles holding it, and is released once the last of them is, so evicting a path
+ * only drops a reference to its contents.
+ * Every handle still weighs as much as its blob, so a weight budget stays the bound it would be
+ * without deduplication; the memory actually used is lower. Computing the digest adds a pass over
+ * the contents to every load.
+ */
+public class DedupContentsStore implements ContentsStore {
+    private final ContentsStore blobStore;
+    /* blobs by digest, the digest wrapped in a ByteBuffer for its equals and hashCode */
+    private final ConcurrentHashMap<ByteBuffer, Blob> blobs = new ConcurrentHashMap<>();
+
+    public DedupContentsStore() {
+        this(new HeapContentsStore());
+    }
+
+    /**
+     * @param blobStore the store keeping the single copy of each contents, e.g. an
+     * OffHeapContentsStore or a CompressingContentsStore
+     */
+    public DedupContentsStore(ContentsStore blobStore) {
+        this.blobStore = blobStore;
+    }
+
+    @Override
+    public FileContents store(String contents) {
+        ByteBuffer digest = ByteBuffer.wrap(digest(contents));
+        /* taking the handle and storing a missing blob are atomic, releaseBlob can't interleave */
+        Blob blob = blobs.compute(digest, (key, existing) -> {
+            Blob taken = existing == null ? new Blob(blobStore.store(contents)) : existing;
+            taken.holders++;
+            return taken;
+        });
+
+        return new SharedFileContents(this, digest, blob.contents);
+    }
+
+    /**
+     * Get the number of distinct contents stored.
+     *
+     * @return the number of blobs
+     */
+    public int getBlobCount() {
+        return blobs.size();
+    }
+
+    void releaseBlob(ByteBuffer digest) {
+        blobs.computeIfPresent(digest, (key, blob) -> {
+            if (--blob.holders > 0) {
+                return blob;
+            }
+            blob.contents.release(); /* the last handle is gone, free the contents */
+            return null;
+        });
+    }
+
+    private static byte[] digest(String contents) {
+        try {
+            return MessageDigest.getInstance("SHA-256")
+                    .digest(contents.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) { /* every JVM has to provide SHA-256 */
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Contents stored once, with the number of handles holding them. The count is only changed
+     * inside the compute functions of the map, which run atomically for a digest.
+     */
+    private static final class Blob {
+        private final FileContents contents;
+        private int holders;
+
+        Blob(FileContents contents) {
+            this.contents = contents;
+        }
+    }
+}
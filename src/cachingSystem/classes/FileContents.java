@@ -0,0 +1,149 @@
+package cachingSystem.classes;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Handle to the contents of a cached file. Depending on the store that created it, the contents
+ * may live on the heap or in memory the handle only points to, so handles are reference counted:
+ * the cache owns one reference and releases it when the entry leaves the cache, readers retain
+ * the handle while they use it.
+ */
+public abstract class FileContents {
+    public static final long UNKNOWN = -1;
+
+    private final AtomicInteger references = new AtomicInteger(1);
+    /* metadata of the file the contents were read from, used to revalidate them cheaply */
+    private volatile long lastModified = UNKNOWN;
+    private volatile long fileSize = UNKNOWN;
+    private final AtomicLong validatedAt = new AtomicLong();
+
+    /**
+     * Remember the metadata of the file the contents were read from.
+     *
+     * @param newLastModified the last modified time of the file, in milliseconds
+     * @param newFileSize the size of the file, in bytes
+     * @param nanoTime the System.nanoTime at which the metadata was read
+     */
+    public void setFileMetadata(long newLastModified, long newFileSize, long nanoTime) {
+        lastModified = newLastModified;
+        fileSize = newFileSize;
+        validatedAt.set(nanoTime);
+    }
+
+    /**
+     * Get the last modified time of the file the contents were read from.
+     *
+     * @return the time, in milliseconds, or UNKNOWN if the contents were not read from a file
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Get the size of the file the contents were read from.
+     *
+     * @return the size, in bytes, or UNKNOWN if the contents were not read from a file
+     */
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    /**
+     * Tell whether the contents still match the given file metadata.
+     *
+     * @param currentLastModified the current last modified time of the file, in milliseconds
+     * @param currentFileSize the current size of the file, in bytes
+     * @return true if the file looks unchanged, false otherwise
+     */
+    public boolean matchesFileMetadata(long currentLastModified, long currentFileSize) {
+        return lastModified == currentLastModified && fileSize == currentFileSize;
+    }
+
+    /**
+     * Claim the next revalidation of the contents, if they were last validated more than
+     * intervalNanos ago. Only one of the threads reading the contents at that time wins the claim.
+     *
+     * @param nanoTime the current System.nanoTime
+     * @param intervalNanos the time between two revalidations
+     * @return true if the caller should revalidate the contents
+     */
+    public boolean claimRevalidation(long nanoTime, long intervalNanos) {
+        if (lastModified == UNKNOWN) { /* not read from a file, e.g. put by hand */
+            return false;
+        }
+        long lastValidation = validatedAt.get();
+        return nanoTime - lastValidation > intervalNanos
+                && validatedAt.compareAndSet(lastValidation, nanoTime);
+    }
+
+    /**
+     * Take a reference to the contents, so they are not freed while being read.
+     *
+     * @return true if the reference was taken, false if the contents were already freed
+     */
+    public boolean retain() {
+        for (;;) {
+            int count = references.get();
+            if (count == 0) {
+                return false;
+            }
+            if (references.compareAndSet(count, count + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Drop a reference to the contents; the last one frees them.
+     */
+    public void release() {
+        if (references.decrementAndGet() == 0) {
+            deallocate();
+        }
+    }
+
+    /**
+     * Free whatever memory backs the contents. Called once, when the last reference is released.
+     */
+    protected void deallocate() {
+        /* heap contents are left to the garbage collector */
+    }
+
+    /**
+     * Decode the contents as a String.
+     *
+     * @return the contents of the file
+     */
+    public abstract String asString();
+
+    /**
+     * Get the contents as UTF-8 bytes, e.g. to write them to a channel. Stores keeping the bytes
+     * hand out a read-only view of them, without copying; the view is only valid while the caller
+     * holds a reference to the contents.
+     *
+     * @return a read-only buffer over the bytes, positioned at 0
+     */
+    public ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(asString().getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer();
+    }
+
+    /**
+     * Tell whether asByteBuffer hands out a view of bytes the contents keep, rather than encoding
+     * a new copy of them.
+     *
+     * @return true if the contents are kept as UTF-8 bytes
+     */
+    public boolean holdsBytes() {
+        return false;
+    }
+
+    /**
+     * Get the number of bytes these contents account for in the cache.
+     *
+     * @return the weight of the contents
+     */
+    public abstract long weight();
+}
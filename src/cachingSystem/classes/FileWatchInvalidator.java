@@ -0,0 +1,142 @@
+package cachingSystem.classes;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Watches the files behind cached keys and reports the keys whose file was created, modified or
+ * deleted. The parent directory of every watched file is registered with a WatchService, and a
+ * daemon thread hands the affected keys to the invalidation callback. Directories stay registered
+ * until the invalidator is closed.
+ */
+public class FileWatchInvalidator implements Closeable {
+    private final WatchService watchService;
+    private final Consumer<String> invalidation;
+    /* keys by the absolute file they were loaded from; several keys may name the same file */
+    private final ConcurrentHashMap<Path, Set<String>> keysByFile = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Path, WatchKey> watchedDirectories = new ConcurrentHashMap<>();
+
+    /**
+     * @param invalidation the callback receiving the keys whose file changed
+     * @throws IOException if the WatchService could not be created
+     */
+    public FileWatchInvalidator(Consumer<String> invalidation) throws IOException {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.invalidation = invalidation;
+
+        Thread watcherThread = new Thread(this::processEvents, "file-cache-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+    }
+
+    /**
+     * Start watching the file behind a key.
+     *
+     * @param key the key, which is the path of the file
+     * @throws UncheckedIOException if the parent directory could not be registered
+     */
+    public void watch(String key) {
+        Path file = Paths.get(key).toAbsolutePath().normalize();
+        Path directory = file.getParent();
+
+        if (directory != null) {
+            watchedDirectories.computeIfAbsent(directory, this::register);
+        }
+        keysByFile.computeIfAbsent(file, ignored -> ConcurrentHashMap.newKeySet()).add(key);
+    }
+
+    /**
+     * Stop watching the file behind a key, e.g. because it left the cache.
+     *
+     * @param key the key
+     */
+    public void unwatch(String key) {
+        Path file = Paths.get(key).toAbsolutePath().normalize();
+
+        keysByFile.computeIfPresent(file, (ignored, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    private WatchKey register(Path directory) {
+        try {
+            return directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not watch " + directory, e);
+        }
+    }
+
+    private void processEvents() {
+        try {
+            for (;;) {
+                WatchKey watchKey = watchService.take();
+                Path directory = (Path) watchKey.watchable();
+
+                for (WatchEvent<?> event : watchKey.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        invalidateDirectory(directory); /* events were lost, assume the worst */
+                    } else {
+                        invalidateFile(directory.resolve((Path) event.context()));
+                    }
+                }
+                if (!watchKey.reset()) { /* the directory is gone */
+                    watchedDirectories.remove(directory, watchKey);
+                    invalidateDirectory(directory);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            /* closed, stop watching */
+        }
+    }
+
+    /**
+     * Hand a key to the invalidation callback. A failing callback must not stop the watcher
+     * thread, every file would stay stale afterwards.
+     */
+    private void invalidate(String key) {
+        try {
+            invalidation.accept(key);
+        } catch (RuntimeException e) {
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        }
+    }
+
+    private void invalidateFile(Path file) {
+        Set<String> keys = keysByFile.remove(file);
+
+        if (keys != null) {
+            for (String key : keys) {
+                invalidate(key);
+            }
+        }
+    }
+
+    private void invalidateDirectory(Path directory) {
+        for (Map.Entry<Path, Set<String>> entry : keysByFile.entrySet()) {
+            if (directory.equals(entry.getKey().getParent())) {
+                invalidateFile(entry.getKey());
+            }
+        }
+    }
+}
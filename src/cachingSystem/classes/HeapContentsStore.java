@@ -0,0 +1,14 @@
+package cachingSystem.classes;
+
+import cachingSystem.interfaces.ContentsStore;
+
+/**
+ * Default store, keeping the contents of files on the heap.
+ */
+public class HeapContentsStore implements ContentsStore {
+
+    @Override
+    public FileContents store(String contents) {
+        return new HeapFileContents(contents);
+    }
+}
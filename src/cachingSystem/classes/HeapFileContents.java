@@ -0,0 +1,25 @@
+package cachingSystem.classes;
+
+/**
+ * File contents kept on the heap as a plain String.
+ */
+public class HeapFileContents extends FileContents {
+    /* rough size of a String header and its backing array header */
+    private static final long STRING_OVERHEAD = 40;
+
+    private final String contents;
+
+    public HeapFileContents(String contents) {
+        this.contents = contents;
+    }
+
+    @Override
+    public String asString() {
+        return contents;
+    }
+
+    @Override
+    public long weight() {
+        return STRING_OVERHEAD + (long) Character.BYTES * contents.length();
+    }
+}
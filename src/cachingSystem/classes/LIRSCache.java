@@ -0,0 +1,280 @@
+package cachingSystem.classes;
+
+import dataStructures.classes.Pair;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+
+/**
+ * LIRS cache (Jiang and Zhang). Entries are ranked by their inter-reference recency: those seen
+ * twice within a short distance are LIR and stay resident, the others are HIR and only get a small
+ * share (1%) of the cache, in the queue Q. The recency stack S also remembers recently evicted
+ * HIR keys as ghosts, so a key that comes back soon enough is promoted to LIR. Looping and
+ * scanning access patterns then only churn the small HIR share.
+ * The stale policy still decides when to evict; the number of ghosts is bounded by the capacity
+ * given to the constructor.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class LIRSCache<K, V> extends ObservableCache<K, V> {
+    private static final int LIR = 0;
+    private static final int HIR = 1;
+    private static final int GHOST = 2;
+
+    private final HashMap<K, Entry<K, V>> entries = new HashMap<>();
+    /* recency stack S, from bottom (least recent) to top, and resident HIR queue Q, front first */
+    private final LinkedHashMap<K, Entry<K, V>> stack = new LinkedHashMap<>();
+    private final LinkedHashMap<K, Entry<K, V>> queue = new LinkedHashMap<>();
+    private final LinkedHashSet<K> ghosts = new LinkedHashSet<>();
+    private final int capacity;
+    private final int maxLir;
+    private int lirCount;
+
+    /**
+     * @param capacity the number of entries the cache holds, which also bounds the ghosts
+     */
+    public LIRSCache(int capacity) {
+        this.capacity = Math.max(capacity, 1);
+        this.maxLir = Math.max(1, this.capacity - Math.max(1, this.capacity / 100));
+    }
+
+    /**
+     * Get a value from cache using a key. If the key isn't found, onMiss events are triggered.
+     * @param key the key used to get a value
+     * @return the value that we got for that key
+     */
+    public V get(K key) {
+        Entry<K, V> entry = entries.get(key);
+
+        if (entry == null || entry.status == GHOST) {
+            cacheListener.onMiss(key);
+            return null;
+        }
+        onAccess(entry);
+        cacheListener.onHit(key);
+
+        return entry.value;
+    }
+
+    /**
+     *  Put a (key, value) pair in the cache memory.
+     *  @param key the key put in the cache
+     *  @param value the value put in the cache
+     */
+    public void put(K key, V value) {
+        Entry<K, V> entry = entries.get(key);
+
+        if (entry != null && entry.status != GHOST) { /* update of a resident entry */
+            if (entry.value != value) {
+                recordRemoval(key, entry.value);
+                entry.value = value;
+                recordInsertion(key, value);
+            }
+            onAccess(entry);
+        } else if (entry != null) { /* a ghost came back while still in S: it is LIR now */
+            ghosts.remove(key);
+            entry.value = value;
+            recordInsertion(key, value);
+            makeLir(entry);
+            moveToTop(entry);
+            demoteBottomLir();
+        } else {
+            entry = new Entry<>(key, value);
+            entries.put(key, entry);
+            recordInsertion(key, value);
+            if (lirCount < maxLir) { /* warming up, everything is LIR until the share is full */
+                makeLir(entry);
+                moveToTop(entry);
+            } else {
+                entry.status = HIR;
+                moveToTop(entry);
+                queue.put(key, entry);
+            }
+        }
+        cacheListener.onPut(key, value);
+        clearStaleEntries();
+    }
+
+    /**
+     * tell whether a key is in the cache, without triggering events or counting as an access.
+     * @param key the key
+     * @return true if the cache holds a value for the key
+     */
+    @Override
+    public boolean containsKey(K key) {
+        Entry<K, V> entry = entries.get(key);
+        return entry != null && entry.status != GHOST;
+    }
+    /**
+     * get the size of the cache memory.
+     * @return the cache's size
+     */
+    public int size() {
+        return entries.size() - ghosts.size();
+    }
+
+    /**
+     * return if the cache memory is empty or not.
+     * @return the empty status of the cache
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * remove an element from the memory using it's key.
+     * @param key the key of the element that will be removed
+     * @return the value for the removed key
+     */
+    public V remove(K key) {
+        Entry<K, V> entry = entries.get(key);
+
+        if (entry == null || entry.status == GHOST) {
+            return null;
+        }
+        entries.remove(key);
+        stack.remove(key);
+        queue.remove(key);
+        if (entry.status == LIR) {
+            lirCount--;
+            pruneStack();
+        }
+        recordRemoval(key, entry.value);
+        return entry.value;
+    }
+
+    /**
+     *  remove all elements from the cache, and forget the ghost entries.
+     */
+    public void clearAll() {
+        while (!isEmpty()) {
+            remove(getEldestEntry().getKey());
+        }
+        for (K key : ghosts) {
+            entries.remove(key);
+            stack.remove(key);
+        }
+        ghosts.clear();
+    }
+
+    /**
+     * Return the entry LIRS replaces next: the front of the resident HIR queue, or the bottom of
+     * the stack if every resident entry is LIR.
+     * @return the entry to evict next
+     */
+    public Pair<K, V> getEldestEntry() {
+        Entry<K, V> eldest = null;
+
+        if (!queue.isEmpty()) {
+            eldest = queue.values().iterator().next();
+        } else if (!stack.isEmpty()) {
+            eldest = stack.values().iterator().next(); /* pruned, so the bottom is LIR */
+        }
+        return eldest == null ? null : new Pair<K, V>(eldest.key, eldest.value);
+    }
+
+    /**
+     * An evicted HIR entry that is still in the stack stays there as a ghost.
+     */
+    @Override
+    protected boolean evictEntry(Pair<K, V> eldest) {
+        Entry<K, V> entry = entries.get(eldest.getKey());
+
+        if (entry == null || entry.status != HIR || !stack.containsKey(entry.key)) {
+            return remove(eldest.getKey()) != null;
+        }
+        V value = entry.value;
+        queue.remove(entry.key);
+        entry.status = GHOST; /* a ghost before onRemove, which may ask whether it's cached */
+        entry.value = null;
+        recordRemoval(entry.key, value);
+        ghosts.add(entry.key);
+        while (ghosts.size() > capacity) { /* forget the oldest ghosts */
+            Iterator<K> iterator = ghosts.iterator();
+            K forgotten = iterator.next();
+            iterator.remove();
+            entries.remove(forgotten);
+            stack.remove(forgotten);
+        }
+        return true;
+    }
+
+    private void onAccess(Entry<K, V> entry) {
+        if (entry.status == LIR) {
+            moveToTop(entry);
+            pruneStack();
+        } else if (stack.containsKey(entry.key)) { /* HIR with a short reuse distance, promote */
+            queue.remove(entry.key);
+            makeLir(entry);
+            moveToTop(entry);
+            demoteBottomLir();
+        } else { /* HIR that fell out of the stack, stays HIR */
+            moveToTop(entry);
+            queue.remove(entry.key);
+            queue.put(entry.key, entry);
+        }
+    }
+
+    private void makeLir(Entry<K, V> entry) {
+        entry.status = LIR;
+        lirCount++;
+    }
+
+    private void moveToTop(Entry<K, V> entry) {
+        stack.remove(entry.key);
+        stack.put(entry.key, entry);
+    }
+
+    /**
+     * Turn the LIR entry at the bottom of the stack into a resident HIR entry, if the LIR share is
+     * over its size.
+     */
+    private void demoteBottomLir() {
+        if (lirCount <= maxLir) {
+            return;
+        }
+        Iterator<Entry<K, V>> bottom = stack.values().iterator();
+        Entry<K, V> demoted = bottom.next();
+        bottom.remove();
+        demoted.status = HIR;
+        lirCount--;
+        queue.put(demoted.key, demoted);
+        pruneStack();
+    }
+
+    /**
+     * Pop HIR entries and ghosts off the bottom of the stack, so that its bottom is LIR.
+     */
+    private void pruneStack() {
+        Iterator<Entry<K, V>> bottom = stack.values().iterator();
+
+        while (bottom.hasNext()) {
+            Entry<K, V> entry = bottom.next();
+            if (entry.status == LIR) {
+                return;
+            }
+            bottom.remove();
+            if (entry.status == GHOST) { /* out of the stack, the ghost is useless */
+                ghosts.remove(entry.key);
+                entries.remove(entry.key);
+            }
+        }
+    }
+
+    /**
+     * Entry of the cache, resident or ghost.
+     */
+    private static final class Entry<K, V> {
+        private final K key;
+        private V value;
+        private int status;
+
+        Entry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
@@ -3,7 +3,11 @@ package cachingSystem.classes;
 import dataStructures.classes.TaDoublyLinkedList;
 import dataStructures.classes.TimeAwareNode;
 import dataStructures.classes.Pair;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
 /**
  * This cache is very similar to the FIFOCache, but guarantees O(1)
  * complexity
@@ -48,10 +52,55 @@ public class LRUCache<K, V> extends ObservableCache<K, V> {
      */
 
     public void put(K key, V value) {
+        insert(key, value);
+        /* and clear those entries that are stale */
+        clearStaleEntries();
+    }
+    /**
+     * Get the values of several keys, with a single lookup per key. onHit / onMiss events are
+     * triggered for each key, and the keys that were found are marked as the latest used.
+     * @param keys the keys used to get values
+     * @return the values found, by key, in the iteration order of keys
+     */
+    @Override
+    public Map<K, V> getAll(Collection<? extends K> keys) {
+        Map<K, V> result = new LinkedHashMap<>();
+
+        for (K key : keys) {
+            TimeAwareNode<Pair<K, V>> node = findNode(key);
+            if (node == null) {
+                cacheListener.onMiss(key);
+            } else {
+                cacheList.push(cacheList.remove(node));
+                result.put(key, node.getData().getValue());
+                cacheListener.onHit(key);
+            }
+        }
+        return result;
+    }
+    /**
+     *  Put several (key, value) pairs in the cache memory, and only clear the stale entries once
+     *  all of them are in.
+     *  @param entries the pairs put in the cache
+     */
+    @Override
+    public void putAll(Map<? extends K, ? extends V> entries) {
+        for (Map.Entry<? extends K, ? extends V> entry : entries.entrySet()) {
+            insert(entry.getKey(), entry.getValue());
+        }
+        clearStaleEntries();
+    }
+    /**
+     *  Put a (key, value) pair in the cache memory and trigger onPut events, without looking for
+     *  stale entries.
+     */
+    private void insert(K key, V value) {
         if (cacheMap.get(key) == null) { /*if there was no data in cache for that key*/
             /* add the (key, value) pair in memory as a new pair*/
             TimeAwareNode<Pair<K, V>> newNode = new TimeAwareNode(new Pair<K, V>(key, value));
             cacheMap.put(key, cacheList.push(newNode));
+            recordInsertion(key, value);
+            onNodeAdded(newNode);
         } else { /* otherwise*/
             /* if for that key the same value existed*/
             if (value.equals(cacheMap.get(key).getData().getValue())) {
@@ -61,15 +110,54 @@ public class LRUCache<K, V> extends ObservableCache<K, V> {
             } else { /* otherwise set the new value, then mark it*/
                 TimeAwareNode<Pair<K, V>> tempNode = cacheList.remove(cacheMap.get(key));
                 Pair<K, V> tempPair = tempNode.getData();
+                recordRemoval(key, tempPair.getValue());
                 tempPair.setValue(value);
+                recordInsertion(key, value);
 
                 cacheList.push(tempNode);
             }
         }
         /* after adding, trigger onPut events */
         cacheListener.onPut(key, value);
-        /* and clear those entries that are stale */
+    }
+    /**
+     *  Put an entry read back from a snapshot in the cache as the latest used one, keeping the
+     *  time it was created at. No onPut events are triggered, the entry was put before. Restoring
+     *  the entries from the least to the most recently used rebuilds their order.
+     *  @param key the key put in the cache
+     *  @param value the value put in the cache
+     *  @param createdMillis the wall clock time at which the entry was first put
+     *  @return false if the entry was not restored, e.g. because the key was already in the
+     *  cache, which then keeps its value
+     */
+    public boolean restore(K key, V value, long createdMillis) {
+        if (cacheMap.containsKey(key)) {
+            return false;
+        }
+        TimeAwareNode<Pair<K, V>> newNode =
+                new TimeAwareNode<>(new Pair<K, V>(key, value), createdMillis);
+        cacheMap.put(key, cacheList.push(newNode));
+        recordInsertion(key, value);
+        onNodeAdded(newNode);
         clearStaleEntries();
+        return true;
+    }
+    /**
+     *  Visit the entries from the least to the most recently used, e.g. to take a snapshot of the
+     *  cache. This doesn't count as an access and triggers no events.
+     *  @param visitor called with the node of every entry, which must be left as it is
+     */
+    public void forEachEldestFirst(Consumer<TimeAwareNode<Pair<K, V>>> visitor) {
+        cacheList.forEachFromTail(visitor);
+    }
+    /**
+     * tell whether a key is in the cache, without triggering events or counting as an access.
+     * @param key the key
+     * @return true if the cache holds a value for the key
+     */
+    @Override
+    public boolean containsKey(K key) {
+        return cacheMap.containsKey(key);
     }
     /**
      * get the size of the cache memory.
@@ -88,14 +176,17 @@ public class LRUCache<K, V> extends ObservableCache<K, V> {
     /**
      * remove an element from the memory using it's key.
      * @param key the key of the element that will be removed
-     * @return the value for the removed key
+     * @return the value for the removed key, or null if it isn't in the cache
      */
     public V remove(K key) {
-        if (key != null) {  /* if there is a key to be removed */
+        TimeAwareNode<Pair<K, V>> node = key == null ? null : cacheMap.remove(key);
+
+        if (node != null) {  /* if there is an element to be removed */
             /* then remove it and return it's value */
-            V returnValue = cacheMap.get(key).getData().getValue();
-            cacheList.remove(cacheMap.get(key));
-            cacheMap.remove(key);
+            V returnValue = node.getData().getValue();
+            onNodeRemoved(node);
+            cacheList.remove(node);
+            recordRemoval(key, returnValue);
             return returnValue;
         }
         return null; /* if there isn't, return null */
@@ -104,6 +195,10 @@ public class LRUCache<K, V> extends ObservableCache<K, V> {
      *  remove all elements from the cache.
      */
     public void clearAll() {
+        for (TimeAwareNode<Pair<K, V>> node : cacheMap.values()) {
+            onNodeRemoved(node);
+            recordRemoval(node.getData().getKey(), node.getData().getValue());
+        }
         cacheList.clearAll();
         cacheMap.clear();
     }
@@ -118,4 +213,24 @@ public class LRUCache<K, V> extends ObservableCache<K, V> {
         /* if it isn't, the last element in the list is the one least recently used */
         return cacheList.getLastData();
     }
+    /**
+     *  find the node of a key that is still valid, used by bulk operations.
+     *  @param key the key
+     *  @return the node, or null if the key isn't in the cache
+     */
+    protected TimeAwareNode<Pair<K, V>> findNode(K key) {
+        return cacheMap.get(key);
+    }
+    /**
+     *  called after a new node was linked in, subclasses may keep their own bookkeeping on it.
+     *  @param node the new node
+     */
+    protected void onNodeAdded(TimeAwareNode<Pair<K, V>> node) {
+    }
+    /**
+     *  called before a node is unlinked, for every node that leaves the cache.
+     *  @param node the node that is removed
+     */
+    protected void onNodeRemoved(TimeAwareNode<Pair<K, V>> node) {
+    }
 }
@@ -0,0 +1,93 @@
+package cachingSystem.classes;
+
+import java.io.Closeable;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the maintenance of caches (eviction, expiry and the listener events they trigger) on a
+ * dedicated daemon thread, so that get / put only have to ask for it. A put asks for one run, and
+ * requests coming in before it starts are merged into it; every registered cache is also
+ * maintained periodically, so expired entries go away even without traffic.
+ * Caches that are not thread-safe are maintained while holding their monitor, the lock FileCache
+ * already takes around them, so they must only be used under that lock.
+ */
+public class MaintenanceScheduler implements Closeable {
+    public static final long DEFAULT_PERIOD_MILLIS = 1000;
+
+    private final ScheduledExecutorService executor;
+    private final Set<ObservableCache<?, ?>> caches = ConcurrentHashMap.newKeySet();
+    private volatile Thread maintenanceThread;
+
+    public MaintenanceScheduler() {
+        this(DEFAULT_PERIOD_MILLIS);
+    }
+
+    /**
+     * @param periodMillis the time between two maintenance runs of every registered cache
+     */
+    public MaintenanceScheduler(long periodMillis) {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-maintenance");
+            thread.setDaemon(true);
+            maintenanceThread = thread;
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::maintainAll, periodMillis, periodMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop the maintenance thread. Caches still using the scheduler go back to maintaining
+     * themselves on the caller's thread.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        caches.clear();
+    }
+
+    void register(ObservableCache<?, ?> cache) {
+        caches.add(cache);
+    }
+
+    void unregister(ObservableCache<?, ?> cache) {
+        caches.remove(cache);
+    }
+
+    /**
+     * Run the maintenance of a cache on the maintenance thread, as soon as possible.
+     * @return false if the scheduler was closed
+     */
+    boolean schedule(ObservableCache<?, ?> cache) {
+        try {
+            executor.execute(() -> maintain(cache));
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    boolean isMaintenanceThread() {
+        return Thread.currentThread() == maintenanceThread;
+    }
+
+    private void maintainAll() {
+        for (ObservableCache<?, ?> cache : caches) {
+            maintain(cache);
+        }
+    }
+
+    private static void maintain(ObservableCache<?, ?> cache) {
+        try {
+            cache.runMaintenance();
+        } catch (RuntimeException e) { /* a failing listener must not stop the other caches */
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        }
+    }
+}
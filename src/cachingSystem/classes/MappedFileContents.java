@@ -0,0 +1,40 @@
+package cachingSystem.classes;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * File contents kept as UTF-8 bytes in a memory-mapped file, e.g. a snapshot read back on
+ * startup. Nothing is copied to the heap until the contents are read, and the pages are only
+ * loaded by the OS when they are touched; the mapping goes away once no handle refers to it.
+ */
+public class MappedFileContents extends FileContents {
+    private final ByteBuffer bytes;
+
+    /**
+     * @param bytes the region of the mapped file holding the contents, which must not change
+     */
+    public MappedFileContents(ByteBuffer bytes) {
+        this.bytes = bytes;
+    }
+
+    @Override
+    public String asString() {
+        return StandardCharsets.UTF_8.decode(bytes.duplicate()).toString();
+    }
+
+    @Override
+    public ByteBuffer asByteBuffer() {
+        return bytes.asReadOnlyBuffer();
+    }
+
+    @Override
+    public boolean holdsBytes() {
+        return true;
+    }
+
+    @Override
+    public long weight() {
+        return bytes.remaining();
+    }
+}
@@ -0,0 +1,60 @@
+package cachingSystem.classes;
+
+import cachingSystem.interfaces.FileLoader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Loader that reads a file in a single pass, straight into a buffer of the file's size. Small files
+ * are read through the channel; large ones are memory-mapped and copied out of the page cache, which
+ * spares the temporary direct buffer a channel read into a heap array would need.
+ * Files are decoded as UTF-8 and keep their line separators.
+ */
+public class NioFileLoader implements FileLoader {
+    public static final long DEFAULT_MAP_THRESHOLD = 1024 * 1024;
+
+    private final long mapThreshold;
+
+    public NioFileLoader() {
+        this(DEFAULT_MAP_THRESHOLD);
+    }
+
+    /**
+     * @param mapThreshold the size, in bytes, from which files are memory-mapped
+     */
+    public NioFileLoader(long mapThreshold) {
+        this.mapThreshold = mapThreshold;
+    }
+
+    @Override
+    public String load(String path) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File too large to cache: " + path);
+            }
+            byte[] contents = new byte[(int) size];
+            int length;
+
+            if (size >= mapThreshold) {
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                mapped.get(contents);
+                length = contents.length;
+            } else {
+                ByteBuffer buffer = ByteBuffer.wrap(contents);
+                /* the file may shrink while we read it, so stop at end of stream */
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                    continue;
+                }
+                length = buffer.position();
+            }
+            return new String(contents, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -2,9 +2,13 @@ package cachingSystem.classes;
 
 import cachingSystem.interfaces.Cache;
 import cachingSystem.interfaces.CacheStalePolicy;
+import cachingSystem.interfaces.Weigher;
 import observerPattern.interfaces.CacheListener;
 import dataStructures.classes.Pair;
 import observerPattern.classes.BroadcastListener;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 /**
  * Abstract class that adds support for listeners and stale element policies to the Cache
  * interface.
@@ -15,6 +19,10 @@ import observerPattern.classes.BroadcastListener;
 public abstract class ObservableCache<K, V> implements Cache<K, V> {
     protected CacheListener<K, V> cacheListener = new BroadcastListener<K, V>();
     protected CacheStalePolicy<K, V> stalePolicy;
+    protected Weigher<K, V> weigher;
+    private final AtomicLong weightedSize = new AtomicLong();
+    private final AtomicBoolean maintenancePending = new AtomicBoolean();
+    private volatile MaintenanceScheduler maintenanceScheduler;
 
     /**
      * Set a policy for removing stale elements from the cache.
@@ -25,6 +33,52 @@ public abstract class ObservableCache<K, V> implements Cache<K, V> {
         this.stalePolicy = stalePolicy;
     }
 
+    /**
+     * Set a weigher, so the cache keeps track of the summed weight of its entries. This should be
+     * done before any entry is added.
+     *
+     * @param weigher the weigher that is set
+     */
+    public void setWeigher(Weigher<K, V> weigher) {
+        this.weigher = weigher;
+    }
+
+    /**
+     * Get the summed weight of the stored entries, or 0 if no weigher was set.
+     *
+     * @return the weighted size of the cache
+     */
+    public long weightedSize() {
+        return weightedSize.get();
+    }
+
+    /**
+     * Account for an entry that was added to the cache. Subclasses call this for every value they
+     * start holding, including the new value of a replaced entry.
+     *
+     * @param key the key of the entry
+     * @param value the value that was added
+     */
+    protected void recordInsertion(K key, V value) {
+        if (weigher != null) {
+            weightedSize.addAndGet(weigher.weigh(key, value));
+        }
+    }
+
+    /**
+     * Account for an entry that left the cache and trigger onRemove events. Subclasses call this
+     * for every value they stop holding, including the old value of a replaced entry.
+     *
+     * @param key the key of the entry
+     * @param value the value that was removed
+     */
+    protected void recordRemoval(K key, V value) {
+        if (weigher != null) {
+            weightedSize.addAndGet(-weigher.weigh(key, value));
+        }
+        cacheListener.onRemove(key, value);
+    }
+
     /**
      * Set a listener for the cache.
      *
@@ -35,15 +89,88 @@ public abstract class ObservableCache<K, V> implements Cache<K, V> {
     }
 
     /**
-     * Remove all those elements from cache that are stale according to the policy.
+     * Tell whether the cache may be used from several threads without external locking.
+     *
+     * @return true if the cache is thread-safe, false otherwise
+     */
+    public boolean isThreadSafe() {
+        return false;
+    }
+
+    /**
+     * Hand eviction and expiry to a scheduler's thread instead of doing them on the thread that
+     * calls get / put. The cache may then briefly hold stale entries. A cache that is not
+     * thread-safe is maintained while holding its monitor, so it must only be used under it.
+     *
+     * @param maintenanceScheduler the scheduler that is set, or null to maintain inline again
+     */
+    public void setMaintenanceScheduler(MaintenanceScheduler maintenanceScheduler) {
+        MaintenanceScheduler previous = this.maintenanceScheduler;
+
+        if (previous != null) {
+            previous.unregister(this);
+        }
+        this.maintenanceScheduler = maintenanceScheduler;
+        if (maintenanceScheduler != null) {
+            maintenanceScheduler.register(this);
+        }
+    }
+
+    /**
+     * Remove all those elements from cache that are stale according to the policy. With a
+     * maintenance scheduler, this only asks for a maintenance run on its thread.
      */
     public void clearStaleEntries() {
+        MaintenanceScheduler scheduler = maintenanceScheduler;
+
+        if (scheduler == null || scheduler.isMaintenanceThread()) {
+            maintain();
+        } else if (maintenancePending.compareAndSet(false, true) && !scheduler.schedule(this)) {
+            maintenancePending.set(false); /* the scheduler was closed, do it ourselves */
+            maintain();
+        }
+    }
+
+    /**
+     * Run a maintenance pass on the calling thread; called by the maintenance scheduler.
+     */
+    void runMaintenance() {
+        maintenancePending.set(false);
+        if (isThreadSafe()) {
+            maintain();
+        } else {
+            synchronized (this) {
+                maintain();
+            }
+        }
+    }
+
+    /**
+     * Do the actual maintenance: remove the stale elements, eldest first. Subclasses add their
+     * own work, e.g. expiring entries, and their locking.
+     */
+    protected void maintain() {
         if (stalePolicy != null) { /*if there is a stale policy */
             Pair<K, V> eldest = getEldestEntry(); /*get the eldest key*/
-            if (stalePolicy.shouldRemoveEldestEntry(eldest)) { /* and remove it if it is stale */
-                remove(eldest.getKey());
+            /* and keep removing while it is stale, e.g. until the cache fits its weight budget */
+            while (eldest != null && stalePolicy.shouldRemoveEldestEntry(eldest)) {
+                if (evictEntry(eldest)) {
+                    cacheListener.onEvict(eldest.getKey());
+                }
+                eldest = getEldestEntry();
             }
         }
     }
 
+    /**
+     * Evict an entry the stale policy asked to remove. Unlike an explicit remove, an eviction may
+     * leave history behind, e.g. the ghost entries of ARC or LIRS.
+     *
+     * @param eldest the entry to evict, as returned by getEldestEntry
+     * @return true if an entry left the cache
+     */
+    protected boolean evictEntry(Pair<K, V> eldest) {
+        return remove(eldest.getKey()) != null;
+    }
+
 }
@@ -28,9 +28,25 @@ public class ObservableFIFOCache<K, V> extends ObservableCache<K, V> {
      */
     public void put(K key, V value) {
         cacheListener.onPut(key, value); /* trigger on put events */
+        V oldValue = fifoCache.get(key); /* the black box does not hand back the replaced value */
+        if (oldValue != null && oldValue != value) {
+            recordRemoval(key, oldValue);
+        }
         fifoCache.put(key, value); /* actually put the key */
+        if (oldValue != value) {
+            recordInsertion(key, value);
+        }
         clearStaleEntries(); /* clear the stale entries */
     }
+    /**
+     * tell whether a key is in the cache, without triggering events or counting as an access.
+     * @param key the key
+     * @return true if the cache holds a value for the key
+     */
+    @Override
+    public boolean containsKey(K key) {
+        return fifoCache.get(key) != null; /* the black box triggers no events */
+    }
     /**
      *  get the cache's size.
      *  @return the size of the cache
@@ -51,13 +67,19 @@ public class ObservableFIFOCache<K, V> extends ObservableCache<K, V> {
      *  @return the value of the element removed from cache
      */
     public V remove(K key) {
-        return fifoCache.remove(key);
+        V removedValue = fifoCache.remove(key);
+        if (removedValue != null) {
+            recordRemoval(key, removedValue);
+        }
+        return removedValue;
     }
     /**
      * clear all elements from the cache.
      */
     public void clearAll() {
-        fifoCache.clearAll();
+        while (!fifoCache.isEmpty()) { /* remove one by one, so every value is accounted for */
+            remove(fifoCache.getEldestEntry().getKey());
+        }
     }
     /**
      *  get the eldest entry from the cache.
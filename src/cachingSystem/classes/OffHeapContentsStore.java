@@ -0,0 +1,46 @@
+package cachingSystem.classes;
+
+import cachingSystem.interfaces.ContentsStore;
+import dataStructures.classes.SlabAllocator;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Store keeping the contents of files off the heap, in the slabs of a SlabAllocator. Contents that
+ * do not fit, because they are larger than a slab or the allocator is full, stay on the heap.
+ */
+public class OffHeapContentsStore implements ContentsStore {
+    private final SlabAllocator allocator;
+
+    /**
+     * @param maxBytes the most off-heap memory the store may use
+     */
+    public OffHeapContentsStore(long maxBytes) {
+        this(new SlabAllocator(maxBytes));
+    }
+
+    public OffHeapContentsStore(SlabAllocator allocator) {
+        this.allocator = allocator;
+    }
+
+    @Override
+    public FileContents store(String contents) {
+        byte[] bytes = contents.getBytes(StandardCharsets.UTF_8);
+        long handle = allocator.allocate(bytes.length);
+
+        if (handle == SlabAllocator.NO_MEMORY) {
+            return new HeapFileContents(contents);
+        }
+        allocator.write(handle, bytes);
+        return new OffHeapFileContents(allocator, handle, bytes.length);
+    }
+
+    /**
+     * Get the allocator, e.g. to report the memory in use and its fragmentation.
+     *
+     * @return the allocator backing the store
+     */
+    public SlabAllocator getAllocator() {
+        return allocator;
+    }
+}
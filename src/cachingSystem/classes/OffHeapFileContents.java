@@ -0,0 +1,46 @@
+package cachingSystem.classes;
+
+import dataStructures.classes.SlabAllocator;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * File contents kept as UTF-8 bytes in a chunk of off-heap memory. The heap only holds this handle.
+ */
+public class OffHeapFileContents extends FileContents {
+    private final SlabAllocator allocator;
+    private final long handle;
+    private final int length;
+
+    public OffHeapFileContents(SlabAllocator allocator, long handle, int length) {
+        this.allocator = allocator;
+        this.handle = handle;
+        this.length = length;
+    }
+
+    @Override
+    public String asString() {
+        return StandardCharsets.UTF_8.decode(allocator.view(handle, length)).toString();
+    }
+
+    @Override
+    public ByteBuffer asByteBuffer() {
+        return allocator.view(handle, length);
+    }
+
+    @Override
+    public boolean holdsBytes() {
+        return true;
+    }
+
+    @Override
+    public long weight() {
+        return length;
+    }
+
+    @Override
+    protected void deallocate() {
+        allocator.free(handle, length);
+    }
+}
@@ -0,0 +1,137 @@
+package cachingSystem.classes;
+
+import observerPattern.interfaces.CacheListener;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Listener learning which key tends to be accessed after which, from the stream of hits and
+ * misses, and prefetching the likely successors of every key that is accessed. It keeps a bounded
+ * first-order Markov table: for each of the most recently accessed keys, the few keys seen right
+ * after it, with their counts. A successor is prefetched once it followed the key in at least
+ * minConfidence of the recorded transitions.
+ * Accesses are treated as a single stream, so clients reading different sequences at the same
+ * time blur each other's transitions, and only the strong ones stay above the threshold.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class Prefetcher<K, V> implements CacheListener<K, V> {
+    private static final int SUCCESSORS = 4;
+    private static final int MIN_TRANSITIONS = 2;
+    /* counts are halved past this total, so the table follows changing access patterns */
+    private static final int MAX_TRANSITIONS = 1024;
+
+    private final Map<K, Successors<K>> table;
+    private final double minConfidence;
+    private final Consumer<K> prefetch;
+    private K previous;
+
+    /**
+     * @param maxTrackedKeys the number of keys whose successors are remembered
+     * @param minConfidence the share of transitions, between 0 and 1, a successor needs
+     * @param prefetch called with every key worth prefetching
+     */
+    public Prefetcher(int maxTrackedKeys, double minConfidence, Consumer<K> prefetch) {
+        this.table = new LinkedHashMap<K, Successors<K>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Successors<K>> eldest) {
+                return size() > maxTrackedKeys;
+            }
+        };
+        this.minConfidence = minConfidence;
+        this.prefetch = prefetch;
+    }
+
+    @Override
+    public void onHit(K key) {
+        onAccess(key);
+    }
+
+    @Override
+    public void onMiss(K key) {
+        onAccess(key);
+    }
+
+    @Override
+    public void onPut(K key, V value) {
+        /* puts are not reads, they say nothing about what is read next */
+    }
+
+    private void onAccess(K key) {
+        List<K> predictions = predict(key);
+
+        for (K prediction : predictions) { /* outside the lock, prefetching may take a while */
+            prefetch.accept(prediction);
+        }
+    }
+
+    private synchronized List<K> predict(K key) {
+        if (previous != null && !previous.equals(key)) {
+            Successors<K> successors = table.get(previous);
+            if (successors == null) {
+                successors = new Successors<>();
+                table.put(previous, successors);
+            }
+            successors.record(key);
+        }
+        previous = key;
+
+        Successors<K> successors = table.get(key);
+        List<K> predictions = new ArrayList<>(0);
+        if (successors != null && successors.total >= MIN_TRANSITIONS) {
+            for (int i = 0; i < SUCCESSORS; i++) {
+                if (successors.keys[i] != null
+                        && successors.counts[i] >= minConfidence * successors.total) {
+                    predictions.add(successors.keys[i]);
+                }
+            }
+        }
+        return predictions;
+    }
+
+    /**
+     * The keys seen after a key. When all slots are taken, a new successor replaces the least
+     * frequent one (Space-Saving), so a successor that became common still makes it in.
+     */
+    private static final class Successors<K> {
+        @SuppressWarnings("unchecked")
+        private final K[] keys = (K[]) new Object[SUCCESSORS];
+        private final int[] counts = new int[SUCCESSORS];
+        private int total;
+
+        void record(K key) {
+            int slot = -1;
+
+            for (int i = 0; i < SUCCESSORS && slot < 0; i++) {
+                if (key.equals(keys[i])) {
+                    slot = i;
+                }
+            }
+            if (slot < 0) {
+                slot = 0;
+                for (int i = 1; i < SUCCESSORS; i++) { /* an empty slot has count 0, the minimum */
+                    if (counts[i] < counts[slot]) {
+                        slot = i;
+                    }
+                }
+                keys[slot] = key;
+            }
+            counts[slot]++;
+            if (++total > MAX_TRANSITIONS) {
+                total = 0;
+                for (int i = 0; i < SUCCESSORS; i++) {
+                    counts[i] /= 2;
+                    total += counts[i];
+                    if (counts[i] == 0) {
+                        keys[i] = null;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package cachingSystem.classes;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Append-only store of file contents on local disk, used as the second tier of a TieredCache. The
+ * store is a log of fixed-size segment files, each memory-mapped: records are appended to the
+ * newest segment, and an index in memory maps every key to its latest record. Removing or
+ * replacing a key only drops it from the index, its old record stays in place as dead bytes.
+ * When the store is full, the segment with the fewest live bytes is compacted (its live records
+ * are copied to the newest segment) if it is mostly dead, otherwise the oldest segment is dropped
+ * along with its entries; either way the segment file is deleted.
+ * Contents read from the store point into the mapping, which outlives the segment file until no
+ * handle refers to it. The store is not thread-safe, and it starts empty: segments left behind by
+ * a previous run are deleted.
+ *
+ * A record is: the length of the key, the length of the contents, the last modified time and size
+ * of the file, then the UTF-8 bytes of the key and of the contents.
+ */
+public class SegmentStore implements Closeable {
+    private static final int HEADER_BYTES = 2 * Integer.BYTES + 2 * Long.BYTES;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".dat";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int maxSegments;
+    private final HashMap<String, Location> index = new HashMap<>();
+    /* from the oldest segment to the newest one, which records are appended to */
+    private final List<Segment> segments = new ArrayList<>();
+    private BiConsumer<String, FileContents> dropListener = (key, contents) -> { };
+    private int nextSegmentId;
+
+    /**
+     * @param directory the directory the segment files are kept in, created if needed
+     * @param segmentBytes the size of a segment file, which bounds the size of a record
+     * @param maxBytes the disk space the store may take, at least two segments
+     * @throws IOException if the directory could not be prepared
+     */
+    public SegmentStore(Path directory, int segmentBytes, long maxBytes) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = (int) Math.max(2, Math.min(Integer.MAX_VALUE, maxBytes / segmentBytes));
+
+        try (DirectoryStream<Path> stale = Files.newDirectoryStream(directory,
+                SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : stale) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * Set the listener called for every entry the store drops to make room, with its contents.
+     *
+     * @param dropListener the listener that is set
+     */
+    public void setDropListener(BiConsumer<String, FileContents> dropListener) {
+        this.dropListener = dropListener;
+    }
+
+    /**
+     * Append the contents of a file to the store, replacing the previous ones of the key.
+     *
+     * @param key the key of the contents
+     * @param contents the contents
+     * @return false if the contents do not fit in a segment, and were not stored
+     * @throws IOException if a new segment file could not be created
+     */
+    public boolean put(String key, FileContents contents) throws IOException {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer value = contents.asByteBuffer(); /* no decoding for mapped or off-heap bytes */
+        int recordBytes = HEADER_BYTES + keyBytes.length + value.remaining();
+
+        if (recordBytes > segmentBytes || recordBytes < 0) {
+            return false;
+        }
+        remove(key);
+        if (segments.isEmpty() || activeSegment().free() < recordBytes) {
+            roll(recordBytes);
+        }
+        append(key, keyBytes, value, contents.getLastModified(), contents.getFileSize());
+        return true;
+    }
+
+    /**
+     * Get the contents of a key, as a view of its record.
+     *
+     * @param key the key
+     * @return the contents, or null if the key isn't in the store
+     */
+    public FileContents get(String key) {
+        Location location = index.get(key);
+        return location == null ? null : location.segment.read(location.offset);
+    }
+
+    /**
+     * Tell whether the store holds contents for a key.
+     *
+     * @param key the key
+     * @return true if the key is in the store
+     */
+    public boolean contains(String key) {
+        return index.containsKey(key);
+    }
+
+    /**
+     * Drop the contents of a key; the dropListener isn't called.
+     *
+     * @param key the key
+     * @return true if the key was in the store
+     */
+    public boolean remove(String key) {
+        Location location = index.remove(key);
+
+        if (location == null) {
+            return false;
+        }
+        location.segment.liveBytes -= location.recordBytes;
+        return true;
+    }
+
+    /**
+     * Get the number of keys in the store.
+     *
+     * @return the number of keys
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Drop every entry and delete the segment files; the dropListener isn't called.
+     *
+     * @throws IOException if a segment file could not be deleted
+     */
+    public void clear() throws IOException {
+        index.clear();
+        for (Segment segment : segments) {
+            Files.deleteIfExists(segment.file);
+        }
+        segments.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        clear();
+    }
+
+    private Segment activeSegment() {
+        return segments.get(segments.size() - 1);
+    }
+
+    /**
+     * Start a new segment, then make room for it. Compaction copies at most what leaves reserve
+     * bytes free in the new segment, so the record waiting for it still fits afterwards.
+     */
+    private void roll(int reserve) throws IOException {
+        Path file = directory.resolve(SEGMENT_PREFIX + nextSegmentId++ + SEGMENT_SUFFIX);
+        MappedByteBuffer buffer;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+        segments.add(new Segment(file, buffer));
+
+        while (segments.size() > maxSegments) {
+            Segment victim = segments.get(0);
+            for (int i = 1; i < segments.size() - 1; i++) {
+                if (segments.get(i).liveBytes < victim.liveBytes) {
+                    victim = segments.get(i);
+                }
+            }
+            if (victim.liveBytes > segmentBytes / 2) { /* mostly live, drop the oldest instead */
+                victim = segments.get(0);
+                evacuate(victim, Integer.MAX_VALUE);
+            } else {
+                evacuate(victim, reserve);
+            }
+            segments.remove(victim);
+            Files.deleteIfExists(victim.file);
+        }
+    }
+
+    /**
+     * Copy the live records of a segment to the active one while they fit, leaving reserve bytes
+     * free, and drop the others.
+     */
+    private void evacuate(Segment segment, int reserve) {
+        Segment active = activeSegment();
+        int position = 0;
+
+        while (position < segment.writePosition) {
+            int keyLength = segment.buffer.getInt(position);
+            int valueLength = segment.buffer.getInt(position + Integer.BYTES);
+            int recordBytes = HEADER_BYTES + keyLength + valueLength;
+            String key = segment.readKey(position, keyLength);
+            Location location = index.get(key);
+
+            if (location != null && location.segment == segment && location.offset == position) {
+                if ((long) active.free() - recordBytes >= reserve) {
+                    ByteBuffer record = segment.buffer.duplicate();
+                    record.limit(position + recordBytes);
+                    record.position(position);
+                    index.put(key, active.append(record, recordBytes));
+                } else {
+                    FileContents contents = segment.read(position);
+                    index.remove(key);
+                    dropListener.accept(key, contents);
+                }
+            }
+            position += recordBytes;
+        }
+    }
+
+    private void append(String key, byte[] keyBytes, ByteBuffer value, long lastModified,
+                        long fileSize) {
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + keyBytes.length + value.remaining());
+
+        record.putInt(keyBytes.length);
+        record.putInt(value.remaining());
+        record.putLong(lastModified);
+        record.putLong(fileSize);
+        record.put(keyBytes);
+        record.put(value);
+        record.flip();
+        index.put(key, activeSegment().append(record, record.remaining()));
+    }
+
+    /**
+     * Where the latest record of a key is.
+     */
+    private static final class Location {
+        private final Segment segment;
+        private final int offset;
+        private final int recordBytes;
+
+        Location(Segment segment, int offset, int recordBytes) {
+            this.segment = segment;
+            this.offset = offset;
+            this.recordBytes = recordBytes;
+        }
+    }
+
+    /**
+     * A segment file and its mapping.
+     */
+    private static final class Segment {
+        private final Path file;
+        private final MappedByteBuffer buffer;
+        private int writePosition;
+        /* bytes of the records the index still points to */
+        private long liveBytes;
+
+        Segment(Path file, MappedByteBuffer buffer) {
+            this.file = file;
+            this.buffer = buffer;
+        }
+
+        int free() {
+            return buffer.capacity() - writePosition;
+        }
+
+        Location append(ByteBuffer record, int recordBytes) {
+            ByteBuffer target = buffer.duplicate();
+            Location location = new Location(this, writePosition, recordBytes);
+
+            target.position(writePosition);
+            target.put(record);
+            writePosition += recordBytes;
+            liveBytes += recordBytes;
+            return location;
+        }
+
+        String readKey(int offset, int keyLength) {
+            ByteBuffer key = buffer.duplicate();
+            key.limit(offset + HEADER_BYTES + keyLength);
+            key.position(offset + HEADER_BYTES);
+            return StandardCharsets.UTF_8.decode(key).toString();
+        }
+
+        FileContents read(int offset) {
+            int keyLength = buffer.getInt(offset);
+            int valueLength = buffer.getInt(offset + Integer.BYTES);
+            int valueOffset = offset + HEADER_BYTES + keyLength;
+            ByteBuffer value = buffer.duplicate();
+            value.limit(valueOffset + valueLength);
+            value.position(valueOffset);
+
+            FileContents contents = new MappedFileContents(value.slice().asReadOnlyBuffer());
+            /* the contents sat on disk for an unknown time, revalidate them on their first read */
+            contents.setFileMetadata(buffer.getLong(offset + 2 * Integer.BYTES),
+                    buffer.getLong(offset + 2 * Integer.BYTES + Long.BYTES),
+                    System.nanoTime() - Long.MAX_VALUE / 2);
+            return contents;
+        }
+    }
+}
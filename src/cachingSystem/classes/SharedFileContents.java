@@ -0,0 +1,50 @@
+package cachingSystem.classes;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Handle to contents shared with other files through a DedupContentsStore. The handle has its own
+ * file metadata and reference count; the shared contents are released once every handle to them
+ * is freed.
+ */
+public class SharedFileContents extends FileContents {
+    private final DedupContentsStore store;
+    private final ByteBuffer digest;
+    private final FileContents blob;
+
+    /**
+     * @param store the store counting the handles to the blob
+     * @param digest the digest of the contents
+     * @param blob the shared contents, kept alive until this handle is freed
+     */
+    public SharedFileContents(DedupContentsStore store, ByteBuffer digest, FileContents blob) {
+        this.store = store;
+        this.digest = digest;
+        this.blob = blob;
+    }
+
+    @Override
+    public String asString() {
+        return blob.asString();
+    }
+
+    @Override
+    public ByteBuffer asByteBuffer() {
+        return blob.asByteBuffer();
+    }
+
+    @Override
+    public boolean holdsBytes() {
+        return blob.holdsBytes();
+    }
+
+    @Override
+    public long weight() {
+        return blob.weight();
+    }
+
+    @Override
+    protected void deallocate() {
+        store.releaseBlob(digest);
+    }
+}
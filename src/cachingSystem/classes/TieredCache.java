@@ -0,0 +1,163 @@
+package cachingSystem.classes;
+
+import dataStructures.classes.Pair;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU cache of file contents backed by a second tier on local disk: instead of being dropped, the
+ * entries evicted from memory are written to a SegmentStore, and a key that misses in memory is
+ * looked up there before it counts as a miss. An entry found on disk moves back to memory, so a
+ * key is in one tier at a time; it is read straight from the mapped segment, without copying.
+ * The stale policy, size and weighted size only apply to the memory tier. An entry leaving memory
+ * triggers onRemove and onEvict events even if it goes to disk, and one leaving the disk triggers
+ * onRemove once more, with a view of its record.
+ */
+public class TieredCache extends LRUCache<String, FileContents> implements Closeable {
+    private final SegmentStore diskStore;
+
+    /**
+     * @param diskStore the store the evicted entries go to, owned by the cache from now on
+     */
+    public TieredCache(SegmentStore diskStore) {
+        this.diskStore = diskStore;
+        this.diskStore.setDropListener((key, contents) -> cacheListener.onRemove(key, contents));
+    }
+
+    /**
+     * Get a value from memory, or else from disk, moving it back to memory. If the key is in
+     * neither, onMiss events are triggered.
+     * @param key the key used to get a value
+     * @return the value that we got for that key
+     */
+    @Override
+    public FileContents get(String key) {
+        if (cacheMap.containsKey(key)) {
+            return super.get(key);
+        }
+        FileContents contents = diskStore.get(key);
+
+        if (contents == null) {
+            cacheListener.onMiss(key);
+            return null;
+        }
+        diskStore.remove(key);
+        restore(key, contents, System.currentTimeMillis()); /* no onPut, it was put before */
+        cacheListener.onHit(key);
+        return contents;
+    }
+
+    /**
+     * Get the values of several keys, from either tier.
+     * @param keys the keys used to get values
+     * @return the values found, by key, in the iteration order of keys
+     */
+    @Override
+    public Map<String, FileContents> getAll(Collection<? extends String> keys) {
+        Map<String, FileContents> result = new LinkedHashMap<>();
+
+        for (String key : keys) {
+            FileContents contents = get(key);
+            if (contents != null) {
+                result.put(key, contents);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Put a value in memory; an older value on disk is dropped.
+     */
+    @Override
+    public void put(String key, FileContents value) {
+        diskStore.remove(key);
+        super.put(key, value);
+    }
+
+    /**
+     * Put several values in memory; older values on disk are dropped.
+     */
+    @Override
+    public void putAll(Map<? extends String, ? extends FileContents> entries) {
+        for (String key : entries.keySet()) {
+            diskStore.remove(key);
+        }
+        super.putAll(entries);
+    }
+
+    @Override
+    public boolean containsKey(String key) {
+        return super.containsKey(key) || diskStore.contains(key);
+    }
+
+    /**
+     * remove an element from either tier using it's key.
+     * @param key the key of the element that will be removed
+     * @return the value for the removed key, or null if it was in neither tier
+     */
+    @Override
+    public FileContents remove(String key) {
+        if (cacheMap.containsKey(key)) {
+            return super.remove(key);
+        }
+        FileContents contents = diskStore.get(key);
+
+        if (contents != null) {
+            diskStore.remove(key);
+            cacheListener.onRemove(key, contents);
+        }
+        return contents;
+    }
+
+    /**
+     *  remove all elements from both tiers.
+     */
+    @Override
+    public void clearAll() {
+        super.clearAll();
+        try {
+            diskStore.clear();
+        } catch (IOException e) { /* the entries are gone from the index, only files are left */
+        }
+    }
+
+    /**
+     * get the number of entries on disk.
+     * @return the number of entries in the second tier
+     */
+    public int diskSize() {
+        return diskStore.size();
+    }
+
+    /**
+     * Delete the files of the disk tier.
+     */
+    @Override
+    public void close() throws IOException {
+        diskStore.close();
+    }
+
+    /**
+     * The evicted entry is written to disk before it leaves memory. The disk tier is best effort:
+     * an entry that doesn't fit in a segment, or can't be written, is simply evicted.
+     */
+    @Override
+    protected boolean evictEntry(Pair<String, FileContents> eldest) {
+        FileContents contents = eldest.getValue();
+
+        if (contents.retain()) { /* keep it alive while it is copied */
+            try {
+                diskStore.put(eldest.getKey(), contents);
+            } catch (IOException e) {
+                diskStore.remove(eldest.getKey());
+            } finally {
+                contents.release();
+            }
+        }
+        return super.evictEntry(eldest);
+    }
+}
@@ -1,17 +1,27 @@
 package cachingSystem.classes;
 
 import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
 import dataStructures.classes.TimeAwareNode;
+import dataStructures.classes.TimerWheel;
 import dataStructures.classes.Pair;
-import cachingSystem.interfaces.CacheStalePolicy;
 /**
  * The TimeAwareCache offers the same functionality as the LRUCache, but also stores a timestamp for
- * each element. The timestamp is updated after each get / put operation for a key. This
- * functionality allows for time based cache stale policies (e.g. removing entries that are older
- * than 1 second).
+ * each element, taken when the key is added. This functionality allows for time based expiration
+ * (e.g. removing entries that are older than 1 second): entries are scheduled in a timer wheel, and
+ * every get / put expires all those that are due, not only the eldest one.
  */
 public class TimeAwareCache<K, V> extends LRUCache<K, V> {
 
+    private final TimerWheel<Pair<K, V>> timerWheel = new TimerWheel<>(System.nanoTime());
+    private final Consumer<TimeAwareNode<Pair<K, V>>> expirer = node -> expire(node.getData());
+    /* negative while no expiration is set */
+    private long expireAfterNanos = -1;
+
     @Override
     public V get(K key) {
          /**
@@ -21,20 +31,54 @@ public class TimeAwareCache<K, V> extends LRUCache<K, V> {
         clearStaleEntries();
 
         V gottenValue = null;
+        TimeAwareNode<Pair<K, V>> node = findNode(key);
 
-        if (cacheMap.get(key) == null) {
+        if (node == null) {
             cacheListener.onMiss(key);
         } else {
-            TimeAwareNode<Pair<K, V>> tempNode = cacheList.remove(cacheMap.get(key));
+            TimeAwareNode<Pair<K, V>> tempNode = cacheList.remove(node);
             cacheList.push(tempNode);
 
-            gottenValue = cacheMap.get(key).getData().getValue();
+            gottenValue = node.getData().getValue();
 
             cacheListener.onHit(key);
         }
         return gottenValue;
     }
 
+    /**
+     * Get the values of several keys, clearing the stale entries once for the whole batch.
+     *
+     * @param keys the keys used to get values
+     * @return the values found, by key, in the iteration order of keys
+     */
+    @Override
+    public Map<K, V> getAll(Collection<? extends K> keys) {
+        clearStaleEntries();
+        return super.getAll(keys);
+    }
+
+    /**
+     * An entry that is due counts as gone, even if it wasn't expired yet.
+     */
+    @Override
+    public boolean containsKey(K key) {
+        TimeAwareNode<Pair<K, V>> node = cacheMap.get(key);
+        return node != null && !isExpired(node, System.nanoTime());
+    }
+
+    /**
+     * An entry that would already have expired is not restored.
+     */
+    @Override
+    public boolean restore(K key, V value, long createdMillis) {
+        if (expireAfterNanos >= 0 && TimeUnit.MILLISECONDS.toNanos(
+                System.currentTimeMillis() - createdMillis) >= expireAfterNanos) {
+            return false;
+        }
+        return super.restore(key, value, createdMillis);
+    }
+
     /**
      * Get the timestamp associated with a key, or null if the key is not stored in the cache.
      *
@@ -46,24 +90,63 @@ public class TimeAwareCache<K, V> extends LRUCache<K, V> {
     }
 
     /**
-     * Set a cache stale policy that should remove all elements older than @millisToExpire
-     * milliseconds. This is a convenience method for setting a time based policy for the cache.
+     * Remove all elements older than @millisToExpire milliseconds. Entries already in the cache
+     * are scheduled right away.
      *
      * @param millisToExpire the expiration time, in milliseconds
      */
     public void setExpirePolicy(long millisToExpire) {
-        setStalePolicy(new CacheStalePolicy<K, V>() { /*set the policy as described here */
-            @Override
-            public boolean shouldRemoveEldestEntry(Pair<K, V> entry) {
-                if (entry != null) { /* if an entry is passed */
-                    /* get its time, check if it's stale, return true if it is, false if not */
-                    Timestamp currentTime = new Timestamp(System.currentTimeMillis());
-                    Timestamp maxExpireTime = new Timestamp(currentTime.getTime() - millisToExpire);
-                    /* below line traslates as: return true if timestamp of key is not after max */
-                    return !getTimestampOfKey(entry.getKey()).after(maxExpireTime);
-                }
-                return false;
-            }
-        });
+        expireAfterNanos = TimeUnit.MILLISECONDS.toNanos(millisToExpire);
+        for (TimeAwareNode<Pair<K, V>> node : cacheMap.values()) {
+            timerWheel.schedule(node, node.getTime() + expireAfterNanos);
+        }
+    }
+
+    /**
+     * Expire every entry that is due, then apply the stale policy, if one is set.
+     */
+    @Override
+    protected void maintain() {
+        if (expireAfterNanos >= 0) {
+            timerWheel.advance(System.nanoTime(), expirer);
+        }
+        super.maintain();
+    }
+
+    /**
+     * An entry that is due is expired right away, even if the wheel didn't turn over its bucket
+     * yet.
+     */
+    @Override
+    protected TimeAwareNode<Pair<K, V>> findNode(K key) {
+        TimeAwareNode<Pair<K, V>> node = cacheMap.get(key);
+
+        if (node != null && isExpired(node, System.nanoTime())) {
+            expire(node.getData());
+            return null;
+        }
+        return node;
+    }
+
+    @Override
+    protected void onNodeAdded(TimeAwareNode<Pair<K, V>> node) {
+        if (expireAfterNanos >= 0) {
+            timerWheel.schedule(node, node.getTime() + expireAfterNanos);
+        }
+    }
+
+    @Override
+    protected void onNodeRemoved(TimeAwareNode<Pair<K, V>> node) {
+        timerWheel.deschedule(node);
+    }
+
+    private void expire(Pair<K, V> entry) {
+        if (evictEntry(entry)) {
+            cacheListener.onEvict(entry.getKey());
+        }
+    }
+
+    private boolean isExpired(TimeAwareNode<Pair<K, V>> node, long now) {
+        return expireAfterNanos >= 0 && now - node.getTime() >= expireAfterNanos;
     }
 }
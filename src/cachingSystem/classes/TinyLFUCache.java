@@ -0,0 +1,284 @@
+package cachingSystem.classes;
+
+import dataStructures.classes.FrequencySketch;
+import dataStructures.classes.Pair;
+
+import java.util.HashMap;
+
+/**
+ * W-TinyLFU cache. New entries go through a small LRU window (1% of the expected size), then into
+ * the probation segment of a segmented LRU; a hit in probation promotes the entry to the protected
+ * segment (80% of the main space). When the stale policy asks for an eviction, the entry that last
+ * left the window for probation (the candidate) and the oldest entry in probation (the victim) are
+ * compared by their frequency in a count-min sketch, and the less popular of the two is evicted.
+ * One-off scans therefore cannot flush entries that are used often.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class TinyLFUCache<K, V> extends ObservableCache<K, V> {
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    private final HashMap<K, Node<K, V>> cacheMap = new HashMap<>();
+    private final AccessQueue<K, V> window = new AccessQueue<>();
+    private final AccessQueue<K, V> probation = new AccessQueue<>();
+    private final AccessQueue<K, V> protectedQueue = new AccessQueue<>();
+    private final FrequencySketch<K> sketch;
+    /* the entry admitted to probation last, until it is evicted, leaves probation or loses a duel */
+    private Node<K, V> candidate;
+    private final int maxWindow;
+    private final int maxProtected;
+
+    /**
+     * @param expectedSize the number of entries the cache is expected to hold
+     */
+    public TinyLFUCache(int expectedSize) {
+        int size = Math.max(expectedSize, 1);
+        sketch = new FrequencySketch<>(size);
+        maxWindow = Math.max(1, size / 100);
+        maxProtected = Math.max(1, (size - maxWindow) * 4 / 5);
+    }
+
+    /**
+     * Get a value from cache using a key. If the key isn't found, onMiss events are triggered.
+     * @param key the key used to get a value
+     * @return the value that we got for that key
+     */
+    public V get(K key) {
+        Node<K, V> node = cacheMap.get(key);
+
+        sketch.increment(key); /* misses count too, a key that keeps missing deserves a place */
+        if (node == null) {
+            cacheListener.onMiss(key);
+            return null;
+        }
+        onAccess(node);
+        cacheListener.onHit(key);
+
+        return node.value;
+    }
+
+    /**
+     *  Put a (key, value) pair in the cache memory.
+     *  @param key the key put in the cache
+     *  @param value the value put in the cache
+     */
+    public void put(K key, V value) {
+        Node<K, V> node = cacheMap.get(key);
+
+        if (node == null) { /* new entries start in the window */
+            node = new Node<>(key, value);
+            cacheMap.put(key, node);
+            window.addLast(node);
+            node.queue = WINDOW;
+            recordInsertion(key, value);
+            sketch.increment(key);
+            if (window.size > maxWindow) { /* the window's eldest becomes a candidate for main */
+                candidate = window.removeFirst();
+                candidate.queue = PROBATION;
+                probation.addLast(candidate);
+            }
+        } else {
+            if (node.value != value) {
+                recordRemoval(key, node.value);
+                node.value = value;
+                recordInsertion(key, value);
+            }
+            onAccess(node);
+        }
+        cacheListener.onPut(key, value);
+        clearStaleEntries();
+    }
+
+    /**
+     * tell whether a key is in the cache, without triggering events or counting as an access.
+     * @param key the key
+     * @return true if the cache holds a value for the key
+     */
+    @Override
+    public boolean containsKey(K key) {
+        return cacheMap.containsKey(key);
+    }
+    /**
+     * get the size of the cache memory.
+     * @return the cache's size
+     */
+    public int size() {
+        return cacheMap.size();
+    }
+
+    /**
+     * return if the cache memory is empty or not.
+     * @return the empty status of the cache
+     */
+    public boolean isEmpty() {
+        return cacheMap.isEmpty();
+    }
+
+    /**
+     * remove an element from the memory using it's key.
+     * @param key the key of the element that will be removed
+     * @return the value for the removed key
+     */
+    public V remove(K key) {
+        Node<K, V> node = cacheMap.remove(key);
+
+        if (node == null) {
+            return null;
+        }
+        queueOf(node).remove(node);
+        if (node == candidate) {
+            candidate = null;
+        }
+        recordRemoval(key, node.value);
+        return node.value;
+    }
+
+    /**
+     *  remove all elements from the cache.
+     */
+    public void clearAll() {
+        while (!cacheMap.isEmpty()) {
+            remove(cacheMap.keySet().iterator().next());
+        }
+    }
+
+    /**
+     * Return the entry the admission filter would evict: the less frequent of the candidate and
+     * the oldest entry in probation, or the oldest one once there is no candidate left. Entries
+     * demoted from the protected segment are never candidates. Without a probation segment, fall
+     * back to the window and then to the protected segment.
+     * @return the entry to evict next
+     */
+    public Pair<K, V> getEldestEntry() {
+        Node<K, V> evicted;
+
+        if (candidate != null && probation.size > 1) {
+            Node<K, V> victim = probation.first == candidate ? candidate.next : probation.first;
+            /* ties go to the victim, admitting the candidate has to be worth it */
+            evicted = sketch.frequency(candidate.key) > sketch.frequency(victim.key)
+                    ? victim : candidate;
+        } else if (probation.size > 0) {
+            evicted = probation.first;
+        } else if (window.size > 0) {
+            evicted = window.first;
+        } else {
+            evicted = protectedQueue.first;
+        }
+        return evicted == null ? null : new Pair<K, V>(evicted.key, evicted.value);
+    }
+
+    /**
+     * Evict an entry; the candidate has had its duel whichever of the two was evicted.
+     * @param eldest the entry to evict, as returned by getEldestEntry
+     * @return true if an entry left the cache
+     */
+    @Override
+    protected boolean evictEntry(Pair<K, V> eldest) {
+        candidate = null;
+        return super.evictEntry(eldest);
+    }
+
+    private void onAccess(Node<K, V> node) {
+        switch (node.queue) {
+            case WINDOW:
+                window.moveToLast(node);
+                break;
+            case PROBATION: /* a second access earns the entry a protected place */
+                probation.remove(node);
+                if (node == candidate) {
+                    candidate = null;
+                }
+                node.queue = PROTECTED;
+                protectedQueue.addLast(node);
+                if (protectedQueue.size > maxProtected) {
+                    Node<K, V> demoted = protectedQueue.removeFirst();
+                    demoted.queue = PROBATION;
+                    probation.addLast(demoted);
+                }
+                break;
+            default:
+                protectedQueue.moveToLast(node);
+                break;
+        }
+    }
+
+    private AccessQueue<K, V> queueOf(Node<K, V> node) {
+        switch (node.queue) {
+            case WINDOW:
+                return window;
+            case PROBATION:
+                return probation;
+            default:
+                return protectedQueue;
+        }
+    }
+
+    /**
+     * Entry of the cache, linked into the queue of its segment.
+     */
+    private static final class Node<K, V> {
+        private final K key;
+        private V value;
+        private int queue;
+        private Node<K, V> prev;
+        private Node<K, V> next;
+
+        Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Intrusive LRU queue: first is the least recently used node, last the most recently used.
+     */
+    private static final class AccessQueue<K, V> {
+        private Node<K, V> first;
+        private Node<K, V> last;
+        private int size;
+
+        void addLast(Node<K, V> node) {
+            node.prev = last;
+            node.next = null;
+            if (last == null) {
+                first = node;
+            } else {
+                last.next = node;
+            }
+            last = node;
+            size++;
+        }
+
+        Node<K, V> removeFirst() {
+            Node<K, V> node = first;
+            remove(node);
+            return node;
+        }
+
+        void remove(Node<K, V> node) {
+            if (node.prev == null) {
+                first = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                last = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            size--;
+        }
+
+        void moveToLast(Node<K, V> node) {
+            if (node != last) {
+                remove(node);
+                addLast(node);
+            }
+        }
+    }
+}
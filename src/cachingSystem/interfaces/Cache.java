@@ -2,6 +2,10 @@ package cachingSystem.interfaces;
 
 import dataStructures.classes.Pair;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * The Cache interface defines the functionality for caching key-value pairs.
  */
@@ -23,6 +27,47 @@ public interface Cache<K, V> {
      */
     void put(K key, V value);
 
+    /**
+     * Get the values associated with several keys. Keys that are not in the cache are left out of
+     * the result.
+     *
+     * @param keys the keys to lookup
+     * @return the values found, by key, in the iteration order of keys
+     */
+    default Map<K, V> getAll(Collection<? extends K> keys) {
+        Map<K, V> result = new LinkedHashMap<>();
+
+        for (K key : keys) {
+            V value = get(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Insert several key value pairs in the cache.
+     *
+     * @param entries the pairs to insert
+     */
+    default void putAll(Map<? extends K, ? extends V> entries) {
+        for (Map.Entry<? extends K, ? extends V> entry : entries.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Tell whether a key is in the cache. Unlike get, this does not count as an access; caches
+     * whose get has side effects, such as events or reordering, override it.
+     *
+     * @param key the key to look for
+     * @return @true if a value is stored for the key, @false otherwise
+     */
+    default boolean containsKey(K key) {
+        return get(key) != null;
+    }
+
     /**
      * The cache size is defined as the number of stored key-value pairs.
      *
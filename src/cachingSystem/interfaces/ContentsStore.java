@@ -0,0 +1,17 @@
+package cachingSystem.interfaces;
+
+import cachingSystem.classes.FileContents;
+
+/**
+ * The ContentsStore interface defines where the contents of cached files are kept.
+ */
+public interface ContentsStore {
+
+    /**
+     * Store the contents of a file. The returned handle holds one reference, owned by the caller.
+     *
+     * @param contents the contents of the file
+     * @return the handle to the stored contents
+     */
+    FileContents store(String contents);
+}
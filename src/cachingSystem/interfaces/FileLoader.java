@@ -0,0 +1,18 @@
+package cachingSystem.interfaces;
+
+import java.io.IOException;
+
+/**
+ * The FileLoader interface defines how a file that missed the cache is read.
+ */
+public interface FileLoader {
+
+    /**
+     * Read the whole contents of a file.
+     *
+     * @param path the path of the file
+     * @return the contents of the file
+     * @throws IOException if the file could not be read
+     */
+    String load(String path) throws IOException;
+}
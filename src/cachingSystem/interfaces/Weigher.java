@@ -0,0 +1,20 @@
+package cachingSystem.interfaces;
+
+/**
+ * The Weigher interface defines how much an entry counts against the budget of a cache.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public interface Weigher<K, V> {
+
+    /**
+     * Return the weight of an entry, e.g. an estimate of the bytes it holds. The weight of an entry
+     * must not change while it is stored in the cache.
+     *
+     * @param key the key of the entry
+     * @param value the value of the entry
+     * @return the weight of the entry, never negative
+     */
+    long weigh(K key, V value);
+}
@@ -0,0 +1,102 @@
+package dataStructures.classes;
+
+/**
+ * Count-min sketch estimating how often elements were seen, in a fixed amount of memory. Counters
+ * are 4 bits wide, sixteen to a long, and every element is counted in four of them; the estimate
+ * is the smallest of the four. Once as many increments as ten times the expected size have been
+ * recorded, all counters are halved, so the sketch forgets about elements that stopped being
+ * popular.
+ * @param <E> the type of the counted elements
+ */
+public class FrequencySketch<E> {
+    private static final long[] SEEDS = {
+        0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_FREQUENCY = 15;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int size;
+
+    /**
+     * @param expectedSize the number of distinct elements the sketch should tell apart
+     */
+    public FrequencySketch(int expectedSize) {
+        int tableSize = 8;
+        while (tableSize < expectedSize && tableSize < (1 << 30)) {
+            tableSize <<= 1;
+        }
+        table = new long[tableSize];
+        tableMask = tableSize - 1;
+        sampleSize = 10 * Math.max(expectedSize, 1);
+    }
+
+    /**
+     * Estimate how often an element was seen since the counters were last halved.
+     * @param element the element
+     * @return the estimated frequency, between 0 and 15
+     */
+    public int frequency(E element) {
+        int hash = spread(element.hashCode());
+        int start = (hash & 3) << 2; /* which group of four counters inside the longs we use */
+        int frequency = MAX_FREQUENCY;
+
+        for (int i = 0; i < 4; i++) {
+            int index = indexOf(hash, i);
+            int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Record one more occurrence of an element.
+     * @param element the element
+     */
+    public void increment(E element) {
+        int hash = spread(element.hashCode());
+        int start = (hash & 3) << 2;
+        boolean added = false;
+
+        for (int i = 0; i < 4; i++) {
+            added |= incrementAt(indexOf(hash, i), start + i);
+        }
+        if (added && ++size == sampleSize) {
+            reset();
+        }
+    }
+
+    private boolean incrementAt(int index, int counter) {
+        int shift = counter << 2;
+        long mask = 0xfL << shift;
+
+        if ((table[index] & mask) != mask) { /* saturated counters stay at 15 */
+            table[index] += 1L << shift;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Halve every counter, aging the frequencies of all elements.
+     */
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size /= 2;
+    }
+
+    private int indexOf(int hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        h += h >>> 32;
+        return (int) h & tableMask;
+    }
+
+    private static int spread(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
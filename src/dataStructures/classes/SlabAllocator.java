@@ -0,0 +1,233 @@
+package dataStructures.classes;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * Off-heap allocator that carves direct memory into fixed-size slabs. Each slab is assigned to one
+ * size class and cut into chunks of that size; the classes grow by a constant factor, so a chunk
+ * wastes at most that fraction of what was asked for. A slab whose chunks are all free goes back
+ * to a common pool and can serve another size class.
+ *
+ * Allocations are identified by a long handle (slab index in the high half, chunk offset in the
+ * low half). Allocating and freeing are synchronized; reading through a view is not, the handle
+ * only has to be safely published to the reading thread.
+ */
+public class SlabAllocator {
+    public static final long NO_MEMORY = -1;
+    public static final int DEFAULT_SLAB_SIZE = 4 * 1024 * 1024;
+
+    private static final int MIN_CHUNK_SIZE = 64;
+    private static final double GROWTH_FACTOR = 1.25;
+
+    private final int slabSize;
+    private final int[] chunkSizes;
+    private final Slab[] slabs;
+    private final ArrayDeque<Slab> freeSlabs = new ArrayDeque<>();
+    private final ArrayDeque<Slab>[] partialSlabs; /* per size class, slabs with free chunks */
+    private int reservedSlabs;
+    private long allocatedBytes;
+    private long usedBytes;
+
+    public SlabAllocator(long maxBytes) {
+        this(maxBytes, DEFAULT_SLAB_SIZE);
+    }
+
+    /**
+     * @param maxBytes the most direct memory the allocator may reserve
+     * @param slabSize the size of a slab, which is also the largest allocation
+     */
+    public SlabAllocator(long maxBytes, int slabSize) {
+        if (slabSize < MIN_CHUNK_SIZE || maxBytes < slabSize) {
+            throw new IllegalArgumentException("Invalid slab size " + slabSize
+                    + " for " + maxBytes + " bytes");
+        }
+        this.slabSize = slabSize;
+        this.slabs = new Slab[(int) Math.min(Integer.MAX_VALUE, maxBytes / slabSize)];
+
+        int[] sizes = new int[64];
+        int count = 0;
+        for (long size = MIN_CHUNK_SIZE; size < slabSize; size = (long) (size * GROWTH_FACTOR)) {
+            if (count == sizes.length) {
+                sizes = Arrays.copyOf(sizes, 2 * count);
+            }
+            sizes[count++] = (int) ((size + 7) & ~7L); /* keep chunks 8 bytes aligned */
+        }
+        if (count == sizes.length) {
+            sizes = Arrays.copyOf(sizes, count + 1);
+        }
+        sizes[count++] = slabSize;
+        this.chunkSizes = Arrays.copyOf(sizes, count);
+
+        @SuppressWarnings({"unchecked", "rawtypes"}) /* no generic array creation */
+        ArrayDeque<Slab>[] newPartialSlabs = (ArrayDeque<Slab>[]) new ArrayDeque[count];
+        this.partialSlabs = newPartialSlabs;
+        for (int i = 0; i < count; i++) {
+            partialSlabs[i] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * Allocate a chunk of at least size bytes.
+     *
+     * @param size the number of bytes needed
+     * @return the handle of the chunk, or NO_MEMORY if the allocator is out of memory
+     */
+    public synchronized long allocate(int size) {
+        if (size > slabSize) {
+            return NO_MEMORY;
+        }
+        int sizeClass = sizeClassOf(size);
+        Slab slab = partialSlabs[sizeClass].peekFirst();
+
+        if (slab == null) { /* no chunk of this size left, dedicate a whole slab to the class */
+            slab = takeFreeSlab();
+            if (slab == null) {
+                return NO_MEMORY;
+            }
+            slab.assign(chunkSizes[sizeClass], sizeClass);
+            partialSlabs[sizeClass].addFirst(slab);
+        }
+        int offset = slab.freeChunks[--slab.freeCount];
+        if (slab.freeCount == 0) {
+            partialSlabs[sizeClass].pollFirst();
+        }
+        allocatedBytes += slab.chunkSize;
+        usedBytes += size;
+
+        return ((long) slab.index << 32) | offset;
+    }
+
+    /**
+     * Give a chunk back to the allocator.
+     *
+     * @param handle the handle of the chunk
+     * @param size the size that was asked for when the chunk was allocated
+     */
+    public synchronized void free(long handle, int size) {
+        Slab slab = slabs[(int) (handle >>> 32)];
+
+        if (slab.freeCount == 0) {
+            partialSlabs[slab.sizeClass].addLast(slab);
+        }
+        slab.freeChunks[slab.freeCount++] = (int) handle;
+        allocatedBytes -= slab.chunkSize;
+        usedBytes -= size;
+
+        if (slab.freeCount == slab.freeChunks.length) { /* empty, let any size class reuse it */
+            partialSlabs[slab.sizeClass].remove(slab);
+            freeSlabs.push(slab);
+        }
+    }
+
+    /**
+     * Copy bytes into a chunk.
+     *
+     * @param handle the handle of the chunk
+     * @param source the bytes to copy
+     */
+    public void write(long handle, byte[] source) {
+        ByteBuffer chunk = slabs[(int) (handle >>> 32)].memory.duplicate();
+        chunk.position((int) handle);
+        chunk.put(source);
+    }
+
+    /**
+     * Get a read-only view of the first length bytes of a chunk. The view is only meaningful until
+     * the chunk is freed.
+     *
+     * @param handle the handle of the chunk
+     * @param length the number of bytes to view
+     * @return the view, positioned at 0
+     */
+    public ByteBuffer view(long handle, int length) {
+        ByteBuffer chunk = slabs[(int) (handle >>> 32)].memory.duplicate();
+        int offset = (int) handle;
+        chunk.limit(offset + length);
+        chunk.position(offset);
+        return chunk.slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Get the direct memory reserved so far, in slabs.
+     *
+     * @return the reserved bytes
+     */
+    public synchronized long getReservedBytes() {
+        return (long) reservedSlabs * slabSize;
+    }
+
+    /**
+     * Get the bytes of all the chunks that are handed out.
+     *
+     * @return the allocated bytes
+     */
+    public synchronized long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Get the bytes that were actually asked for by live allocations.
+     *
+     * @return the used bytes
+     */
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * Get the fraction of the reserved memory that does not hold data, either because chunks are
+     * larger than what they store or because they are free.
+     *
+     * @return the fragmentation, between 0 and 1
+     */
+    public synchronized double getFragmentation() {
+        long reservedBytes = getReservedBytes();
+        return reservedBytes == 0 ? 0 : 1 - (double) usedBytes / reservedBytes;
+    }
+
+    private int sizeClassOf(int size) {
+        int index = Arrays.binarySearch(chunkSizes, size);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private Slab takeFreeSlab() {
+        if (!freeSlabs.isEmpty()) {
+            return freeSlabs.pop();
+        }
+        if (reservedSlabs == slabs.length) {
+            return null;
+        }
+        Slab slab = new Slab(reservedSlabs, ByteBuffer.allocateDirect(slabSize));
+        slabs[reservedSlabs++] = slab;
+        return slab;
+    }
+
+    /**
+     * A slab of direct memory and the offsets of its free chunks.
+     */
+    private static final class Slab {
+        private final int index;
+        private final ByteBuffer memory;
+        private int sizeClass;
+        private int chunkSize;
+        private int[] freeChunks;
+        private int freeCount;
+
+        Slab(int index, ByteBuffer memory) {
+            this.index = index;
+            this.memory = memory;
+        }
+
+        void assign(int newChunkSize, int newSizeClass) {
+            sizeClass = newSizeClass;
+            chunkSize = newChunkSize;
+            freeCount = memory.capacity() / newChunkSize;
+            freeChunks = new int[freeCount];
+            for (int i = 0; i < freeCount; i++) { /* hand out low offsets first */
+                freeChunks[i] = (freeCount - 1 - i) * newChunkSize;
+            }
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package dataStructures.classes;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Space-Saving summary (Metwally, Agrawal and El Abbadi) counting the most frequent elements of a
+ * stream in a fixed number of counters. Once every counter is taken, a new element replaces the
+ * element with the smallest count and inherits that count as its error. A count is thus never
+ * under the real frequency, and over it by at most (elements offered) / capacity; any element
+ * seen more often than that is guaranteed to be tracked.
+ * Counters are grouped in buckets of equal count, kept sorted (the Stream-Summary), so an offer is
+ * O(1) and the top k elements are read in O(k). All methods are synchronized.
+ * @param <E> the type of the counted elements
+ */
+public class SpaceSaving<E> {
+    private final int capacity;
+    private final HashMap<E, Counter<E>> counters;
+    /* buckets from the smallest count (lowest) to the largest one (highest) */
+    private Bucket<E> lowest;
+    private Bucket<E> highest;
+    private long offered;
+
+    /**
+     * @param capacity the number of counters, which bounds both the memory and the error
+     */
+    public SpaceSaving(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(2 * capacity);
+    }
+
+    /**
+     * Count one more occurrence of an element.
+     * @param element the element
+     */
+    public synchronized void offer(E element) {
+        Counter<E> counter = counters.get(element);
+
+        offered++;
+        if (counter == null) {
+            if (counters.size() < capacity) {
+                counter = new Counter<>(element);
+                addToCountOne(counter);
+                counters.put(element, counter);
+                return;
+            }
+            counter = lowest.first; /* take over the counter of a least frequent element */
+            counters.remove(counter.element);
+            counter.element = element;
+            counter.error = lowest.count;
+            counters.put(element, counter);
+        }
+        increment(counter);
+    }
+
+    /**
+     * Estimate the frequency of an element; it is over the real one by at most its error.
+     * @param element the element
+     * @return the estimated count, or 0 if the element isn't tracked
+     */
+    public synchronized long estimate(E element) {
+        Counter<E> counter = counters.get(element);
+        return counter == null ? 0 : counter.bucket.count;
+    }
+
+    /**
+     * Get how much the count of an element may be over its real frequency.
+     * @param element the element
+     * @return the error of its count, or 0 if the element isn't tracked
+     */
+    public synchronized long error(E element) {
+        Counter<E> counter = counters.get(element);
+        return counter == null ? 0 : counter.error;
+    }
+
+    /**
+     * Get the bound on the error of every count, which grows with the stream.
+     * @return the number of elements offered divided by the capacity
+     */
+    public synchronized long getMaxError() {
+        return offered / capacity;
+    }
+
+    /**
+     * Get the most frequent elements, by decreasing estimated count.
+     * @param k the number of elements wanted
+     * @return at most k elements
+     */
+    public synchronized List<E> top(int k) {
+        List<E> result = new ArrayList<>(Math.max(0, Math.min(k, counters.size())));
+
+        for (Bucket<E> bucket = highest; bucket != null && result.size() < k;
+                bucket = bucket.lower) {
+            for (Counter<E> counter = bucket.first; counter != null && result.size() < k;
+                    counter = counter.next) {
+                result.add(counter.element);
+            }
+        }
+        return result;
+    }
+
+    private void addToCountOne(Counter<E> counter) {
+        if (lowest == null || lowest.count != 1) {
+            Bucket<E> bucket = new Bucket<>(1);
+            bucket.higher = lowest;
+            if (lowest == null) {
+                highest = bucket;
+            } else {
+                lowest.lower = bucket;
+            }
+            lowest = bucket;
+        }
+        lowest.add(counter);
+    }
+
+    /**
+     * Move a counter to the bucket above its own, creating it if needed.
+     */
+    private void increment(Counter<E> counter) {
+        Bucket<E> bucket = counter.bucket;
+        Bucket<E> higher = bucket.higher;
+        long count = bucket.count + 1;
+
+        if (higher == null || higher.count != count) {
+            Bucket<E> created = new Bucket<>(count);
+            created.lower = bucket;
+            created.higher = higher;
+            bucket.higher = created;
+            if (higher == null) {
+                highest = created;
+            } else {
+                higher.lower = created;
+            }
+            higher = created;
+        }
+        bucket.remove(counter);
+        higher.add(counter);
+        if (bucket.first == null) { /* the old bucket is empty, unlink it */
+            if (bucket.lower == null) {
+                lowest = bucket.higher;
+            } else {
+                bucket.lower.higher = bucket.higher;
+            }
+            bucket.higher.lower = bucket.lower;
+        }
+    }
+
+    /**
+     * Counter of a tracked element, linked with the other counters of its bucket.
+     */
+    private static final class Counter<E> {
+        private E element;
+        private long error;
+        private Bucket<E> bucket;
+        private Counter<E> prev;
+        private Counter<E> next;
+
+        Counter(E element) {
+            this.element = element;
+        }
+    }
+
+    /**
+     * All the counters sharing a count.
+     */
+    private static final class Bucket<E> {
+        private final long count;
+        private Counter<E> first;
+        private Bucket<E> lower;
+        private Bucket<E> higher;
+
+        Bucket(long count) {
+            this.count = count;
+        }
+
+        void add(Counter<E> counter) {
+            counter.bucket = this;
+            counter.prev = null;
+            counter.next = first;
+            if (first != null) {
+                first.prev = counter;
+            }
+            first = counter;
+        }
+
+        void remove(Counter<E> counter) {
+            if (counter.prev == null) {
+                first = counter.next;
+            } else {
+                counter.prev.next = counter.next;
+            }
+            if (counter.next != null) {
+                counter.next.prev = counter.prev;
+            }
+            counter.prev = null;
+            counter.next = null;
+        }
+    }
+}
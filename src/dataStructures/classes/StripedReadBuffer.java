@@ -0,0 +1,102 @@
+package dataStructures.classes;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Lossy buffer used to record reads without taking a lock. Every thread is mapped to one of
+ * several small ring buffers (stripes), so concurrent readers rarely touch the same counter.
+ * When a stripe is full, or its CAS fails, the element is simply dropped: losing a few recency
+ * updates only makes the eviction order slightly less precise.
+ * @param <E> the type of the recorded elements
+ */
+public class StripedReadBuffer<E> {
+    private static final int STRIPE_CAPACITY = 16;
+    private static final int STRIPE_MASK = STRIPE_CAPACITY - 1;
+
+    private final Stripe<E>[] stripes;
+    private final int stripeMask;
+
+    public StripedReadBuffer() {
+        int stripeCount = 1;
+        /* a few stripes per core, rounded up to a power of two so we can mask instead of mod */
+        while (stripeCount < 4 * Runtime.getRuntime().availableProcessors()) {
+            stripeCount <<= 1;
+        }
+        @SuppressWarnings({"unchecked", "rawtypes"}) /* no generic array creation */
+        Stripe<E>[] newStripes = (Stripe<E>[]) new Stripe[stripeCount];
+        stripes = newStripes;
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe<E>();
+        }
+        stripeMask = stripeCount - 1;
+    }
+
+    /**
+     * Record an element in the stripe of the calling thread.
+     * @param element the element to record
+     * @return true if the stripe is full and should be drained
+     */
+    public boolean offer(E element) {
+        return stripes[stripeIndex()].offer(element);
+    }
+
+    /**
+     * Hand every buffered element to the consumer. Only one thread may drain at a time, so the
+     * caller is expected to hold the lock that guards whatever the consumer updates.
+     * @param consumer the consumer applying the buffered elements
+     */
+    public void drainTo(Consumer<E> consumer) {
+        for (Stripe<E> stripe : stripes) {
+            stripe.drainTo(consumer);
+        }
+    }
+
+    private int stripeIndex() {
+        long id = Thread.currentThread().getId();
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9; /* thread ids are sequential, spread them */
+        return (hash ^ (hash >>> 16)) & stripeMask;
+    }
+
+    /**
+     * Single ring buffer; many producers claim slots with a CAS, one consumer drains it.
+     * @param <E> the type of the recorded elements
+     */
+    private static final class Stripe<E> {
+        private final AtomicReferenceArray<E> buffer = new AtomicReferenceArray<>(STRIPE_CAPACITY);
+        private final AtomicLong writeCounter = new AtomicLong();
+        private volatile long readCounter;
+
+        boolean offer(E element) {
+            long head = readCounter;
+            long tail = writeCounter.get();
+            long size = tail - head;
+
+            if (size >= STRIPE_CAPACITY) { /* full, drop the element and ask for a drain */
+                return true;
+            }
+            if (writeCounter.compareAndSet(tail, tail + 1)) {
+                buffer.lazySet((int) (tail & STRIPE_MASK), element);
+                return size + 1 == STRIPE_CAPACITY;
+            }
+            return false; /* contended, dropping is cheaper than retrying */
+        }
+
+        void drainTo(Consumer<E> consumer) {
+            long head = readCounter;
+            long tail = writeCounter.get();
+
+            for (; head < tail; head++) {
+                int index = (int) (head & STRIPE_MASK);
+                E element = buffer.get(index);
+                if (element == null) { /* slot claimed but not published yet, pick it up later */
+                    break;
+                }
+                buffer.lazySet(index, null);
+                consumer.accept(element);
+            }
+            readCounter = head;
+        }
+    }
+}
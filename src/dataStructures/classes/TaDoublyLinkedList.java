@@ -1,4 +1,7 @@
 package dataStructures.classes;
+
+import java.util.function.Consumer;
+
 /**
  *  Time Aware DLL that uses head and tail nodes to rapidly access data.
  *  BONUS: It stores the size of the DLL.
@@ -85,6 +88,7 @@ public class TaDoublyLinkedList<V> {
         if (tail != null) {
             tail = tail.next;
         }
+        size = 0;
     }
     /**
      *  Get the data inside the tail node.
@@ -93,5 +97,15 @@ public class TaDoublyLinkedList<V> {
     public V getLastData() {
         return tail.getData();
     }
+    /**
+     *  Visit the nodes from the tail to the head, without changing the list.
+     *  @param visitor called with every node
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachFromTail(Consumer<TimeAwareNode<V>> visitor) {
+        for (TimeAwareNode<V> node = tail; node != null; node = node.prev) {
+            visitor.accept(node);
+        }
+    }
 
 }
@@ -1,5 +1,6 @@
 package dataStructures.classes;
 import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A node that stores data and a timestamp for when it was created.
@@ -9,13 +10,34 @@ public class TimeAwareNode<V> {
     private V data;
     protected TimeAwareNode prev;
     protected TimeAwareNode next;
-    private Timestamp timestamp;
+    /* creation time, as wall clock millis and as a monotonic System.nanoTime() */
+    private final long createdMillis;
+    private final long createdNanos;
+    /* links and deadline used by the TimerWheel, the node isn't scheduled while timerNext is null */
+    protected TimeAwareNode<V> timerPrev;
+    protected TimeAwareNode<V> timerNext;
+    protected long expirationTime;
 
     public TimeAwareNode(V newData) {
         this.data = newData;
         prev = null;
         next = null;
-        timestamp = new Timestamp(System.currentTimeMillis());
+        createdMillis = System.currentTimeMillis();
+        createdNanos = System.nanoTime();
+    }
+    /**
+     * create a node that was first created earlier, e.g. one read back from a snapshot. Its
+     * monotonic creation time is derived from its age, so it expires when it would have.
+     * @param newData the data stored in the node
+     * @param createdMillis the wall clock time at which the node was first created
+     */
+    public TimeAwareNode(V newData, long createdMillis) {
+        this.data = newData;
+        prev = null;
+        next = null;
+        this.createdMillis = createdMillis;
+        createdNanos = System.nanoTime()
+                - TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis() - createdMillis);
     }
     /**
      * return the data inside this node.
@@ -29,6 +51,21 @@ public class TimeAwareNode<V> {
      * @return node's timestamp
      */
     public Timestamp getTimestamp() {
-        return this.timestamp;
+        return new Timestamp(createdMillis);
+    }
+    /**
+     * return the System.nanoTime() at which this node was created, for comparing without
+     * allocating a timestamp.
+     * @return node's creation time, in nanoseconds
+     */
+    public long getTime() {
+        return createdNanos;
+    }
+    /**
+     * return the wall clock time at which this node was created.
+     * @return node's creation time, in milliseconds
+     */
+    public long getCreatedMillis() {
+        return createdMillis;
     }
 }
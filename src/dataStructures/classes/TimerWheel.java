@@ -0,0 +1,147 @@
+package dataStructures.classes;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timer wheel scheduling TimeAwareNodes by their expiration time, in nanoseconds.
+ * Every level is a ring of buckets, each bucket a circular list of nodes; the buckets of level 0
+ * span about 16 ms, and every level above is 64 times coarser, up to an overflow bucket for
+ * deadlines days away. Scheduling and descheduling a node are O(1) and allocate nothing. When the
+ * time advances, the buckets the wheels turned over are emptied in one go: due nodes are handed to
+ * the caller, the others drop down to a finer level.
+ * @param V the type of data stored inside the nodes
+ */
+public class TimerWheel<V> {
+    private static final int[] BUCKETS = {64, 64, 64, 64, 1};
+    private static final int[] SHIFTS = {24, 30, 36, 42, 48};
+
+    private final TimeAwareNode<V>[][] wheel;
+    /* times are kept relative to the origin, so they stay positive and shift cleanly */
+    private final long origin;
+    private long nanos;
+
+    /**
+     * @param currentTime the current System.nanoTime()
+     */
+    public TimerWheel(long currentTime) {
+        origin = currentTime;
+        @SuppressWarnings({"unchecked", "rawtypes"}) /* no generic array creation */
+        TimeAwareNode<V>[][] newWheel = (TimeAwareNode<V>[][]) new TimeAwareNode[BUCKETS.length][];
+        wheel = newWheel;
+        for (int i = 0; i < BUCKETS.length; i++) {
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            TimeAwareNode<V>[] buckets = (TimeAwareNode<V>[]) new TimeAwareNode[BUCKETS[i]];
+            wheel[i] = buckets;
+            for (int j = 0; j < BUCKETS[i]; j++) {
+                TimeAwareNode<V> sentinel = new TimeAwareNode<>(null);
+                sentinel.timerPrev = sentinel;
+                sentinel.timerNext = sentinel;
+                wheel[i][j] = sentinel;
+            }
+        }
+    }
+
+    /**
+     * Schedule a node to expire at a given time, moving it if it was already scheduled.
+     * @param node the node
+     * @param expirationTime the System.nanoTime() at which the node expires
+     */
+    public void schedule(TimeAwareNode<V> node, long expirationTime) {
+        deschedule(node);
+        node.expirationTime = expirationTime;
+        link(findBucket(expirationTime - origin), node);
+    }
+
+    /**
+     * Remove a node from the wheel, if it is scheduled.
+     * @param node the node
+     */
+    public void deschedule(TimeAwareNode<V> node) {
+        if (node.timerNext != null) {
+            node.timerPrev.timerNext = node.timerNext;
+            node.timerNext.timerPrev = node.timerPrev;
+            node.timerPrev = null;
+            node.timerNext = null;
+        }
+    }
+
+    /**
+     * Advance the wheel to the current time, and hand every node that expired to the expirer. The
+     * nodes are descheduled before the expirer sees them.
+     * @param currentTime the current System.nanoTime()
+     * @param expirer called for each expired node
+     */
+    public void advance(long currentTime, Consumer<TimeAwareNode<V>> expirer) {
+        long previous = nanos;
+        long time = currentTime - origin;
+
+        if (time - previous <= 0) {
+            return;
+        }
+        nanos = time;
+        for (int i = 0; i < SHIFTS.length; i++) { /* a level only turns if the one below wrapped */
+            long previousTicks = previous >>> SHIFTS[i];
+            long currentTicks = time >>> SHIFTS[i];
+            if (currentTicks - previousTicks <= 0) {
+                break;
+            }
+            expire(i, previousTicks, currentTicks - previousTicks, expirer);
+        }
+    }
+
+    /**
+     * Empty the buckets of a level that were passed over, including the one the last advance
+     * stopped in.
+     */
+    private void expire(int level, long previousTicks, long delta,
+                        Consumer<TimeAwareNode<V>> expirer) {
+        TimeAwareNode<V>[] buckets = wheel[level];
+        int mask = buckets.length - 1;
+        int steps = (int) Math.min(1 + delta, buckets.length);
+        int start = (int) (previousTicks & mask);
+
+        for (int i = start; i < start + steps; i++) {
+            TimeAwareNode<V> sentinel = buckets[i & mask];
+            TimeAwareNode<V> node = sentinel.timerNext;
+            sentinel.timerPrev = sentinel; /* detach the whole bucket, then sort out its nodes */
+            sentinel.timerNext = sentinel;
+            while (node != sentinel) {
+                TimeAwareNode<V> next = node.timerNext;
+                node.timerPrev = null;
+                node.timerNext = null;
+                if (node.expirationTime - origin - nanos > 0) {
+                    link(findBucket(node.expirationTime - origin), node);
+                } else {
+                    expirer.accept(node);
+                }
+                node = next;
+            }
+        }
+    }
+
+    /**
+     * Find the bucket for a deadline: the finest level whose ring still reaches that far.
+     */
+    private TimeAwareNode<V> findBucket(long time) {
+        long delay = time - nanos;
+
+        if (delay < 0) { /* already due, it goes in the current bucket and expires next advance */
+            time = nanos;
+            delay = 0;
+        }
+        for (int i = 0; i < SHIFTS.length - 1; i++) {
+            if (delay < (1L << SHIFTS[i + 1])) {
+                int index = (int) ((time >>> SHIFTS[i]) & (BUCKETS[i] - 1));
+                return wheel[i][index];
+            }
+        }
+        return wheel[SHIFTS.length - 1][0];
+    }
+
+    private static <V> void link(TimeAwareNode<V> sentinel, TimeAwareNode<V> node) {
+        node.timerPrev = sentinel.timerPrev;
+        node.timerNext = sentinel;
+        sentinel.timerPrev.timerNext = node;
+        sentinel.timerPrev = node;
+    }
+}
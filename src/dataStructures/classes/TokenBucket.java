@@ -0,0 +1,42 @@
+package dataStructures.classes;
+
+/**
+ * Token bucket limiting a rate, e.g. bytes read per second. Tokens accumulate at a fixed rate, up
+ * to one second's worth, and are taken out by the operations they pay for; an operation that
+ * can't be paid for right away is refused, not delayed.
+ */
+public class TokenBucket {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final long tokensPerSecond;
+    private double tokens;
+    private long refilledAt;
+
+    /**
+     * @param tokensPerSecond the rate at which tokens accumulate, which is also the burst size
+     */
+    public TokenBucket(long tokensPerSecond) {
+        this.tokensPerSecond = tokensPerSecond;
+        this.tokens = tokensPerSecond;
+        this.refilledAt = System.nanoTime();
+    }
+
+    /**
+     * Take tokens out of the bucket if it holds enough of them. An operation costing more than
+     * the burst size is let through when the bucket is full, so it is not refused forever.
+     * @param cost the number of tokens wanted
+     * @return true if the tokens were taken
+     */
+    public synchronized boolean tryAcquire(long cost) {
+        long now = System.nanoTime();
+
+        tokens = Math.min(tokensPerSecond,
+                tokens + (double) (now - refilledAt) * tokensPerSecond / NANOS_PER_SECOND);
+        refilledAt = now;
+        if (tokens < Math.min(cost, tokensPerSecond)) {
+            return false;
+        }
+        tokens -= cost; /* may go negative for a large cost, which then takes longer to repay */
+        return true;
+    }
+}
@@ -0,0 +1,285 @@
+package observerPattern.classes;
+
+import java.io.Closeable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * BroadcastListener that hands its events to a dispatcher thread instead of calling the listeners
+ * on the cache thread, so a slow listener no longer shows in get latency. Events are written into
+ * a preallocated ring of slots: producers claim a slot with a CAS and fill it in, nothing is
+ * allocated; the dispatcher drains the published slots in batches and calls the listeners.
+ * When the ring is full, the overflow policy either drops the event or makes the producer wait;
+ * a producer holding a lock the listeners may need never waits, it dispatches its event itself.
+ */
+public class AsyncBroadcastListener<K, V> extends BroadcastListener<K, V> implements Closeable {
+    /**
+     * What a producer does when the ring is full.
+     */
+    public enum OverflowPolicy {
+        DROP,
+        BLOCK,
+    }
+
+    private static final int HIT = 0;
+    private static final int MISS = 1;
+    private static final int PUT = 2;
+    private static final int REMOVE = 3;
+    private static final int EVICT = 4;
+    private static final int LOAD = 5;
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+
+    private final Event<K, V>[] ring;
+    /* sequence last published in every slot; a slot is readable once it holds the expected one */
+    private final AtomicLongArray published;
+    private final int mask;
+    private final OverflowPolicy overflowPolicy;
+    private final AtomicLong claimed = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private final Thread dispatcher;
+    private volatile BooleanSupplier holdsListenerLock = () -> false;
+    private volatile long consumed;
+    private volatile boolean closed;
+    /* set once the dispatcher thread exited, producers then drain the ring themselves */
+    private volatile boolean stopped;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    /* set while the dispatcher is parked, so the next producer wakes it up */
+    private volatile boolean idle;
+
+    /**
+     * @param capacity the number of slots in the ring, rounded up to a power of two
+     * @param overflowPolicy what to do with events while the ring is full
+     */
+    public AsyncBroadcastListener(int capacity, OverflowPolicy overflowPolicy) {
+        int size = 2;
+        while (size < capacity && size < (1 << 30)) {
+            size <<= 1;
+        }
+        @SuppressWarnings({"unchecked", "rawtypes"}) /* no generic array creation */
+        Event<K, V>[] newRing = (Event<K, V>[]) new Event[size];
+        ring = newRing;
+        published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            ring[i] = new Event<>();
+            published.set(i, -1);
+        }
+        mask = size - 1;
+        this.overflowPolicy = overflowPolicy;
+
+        dispatcher = new Thread(this::dispatchEvents, "cache-listener-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @Override
+    public void onHit(K key) {
+        publish(HIT, key, null, 0);
+    }
+
+    @Override
+    public void onMiss(K key) {
+        publish(MISS, key, null, 0);
+    }
+
+    @Override
+    public void onPut(K key, V value) {
+        publish(PUT, key, value, 0);
+    }
+
+    @Override
+    public void onRemove(K key, V value) {
+        publish(REMOVE, key, value, 0);
+    }
+
+    @Override
+    public void onEvict(K key) {
+        publish(EVICT, key, null, 0);
+    }
+
+    @Override
+    public void onLoad(K key, long loadNanos) {
+        publish(LOAD, key, null, loadNanos);
+    }
+
+    /**
+     * Set the check telling whether the calling thread holds a lock the listeners may take, e.g.
+     * the monitor of the cache the events come from. While the ring is full, such a thread does
+     * not wait for the dispatcher, which may itself be waiting for that lock in a listener: it
+     * dispatches its event on its own thread instead, even under the BLOCK policy.
+     *
+     * @param holdsListenerLock the check that is set
+     */
+    public void setHoldsListenerLock(BooleanSupplier holdsListenerLock) {
+        this.holdsListenerLock = holdsListenerLock;
+    }
+
+    /**
+     * Get the number of events dropped because the ring was full.
+     *
+     * @return the number of dropped events
+     */
+    public long getDroppedEvents() {
+        return dropped.sum();
+    }
+
+    /**
+     * Dispatch the events still in the ring and stop the dispatcher thread. Events coming in
+     * afterwards are dispatched on the caller's thread.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(dispatcher);
+        try {
+            dispatcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        drainStopped();
+    }
+
+    private void publish(int type, K key, V value, long nanos) {
+        if (closed || Thread.currentThread() == dispatcher) { /* a listener may use the cache */
+            dispatch(type, key, value, nanos);
+            return;
+        }
+        long sequence;
+        for (;;) {
+            sequence = claimed.get();
+            if (sequence - consumed >= ring.length) { /* the dispatcher is a full ring behind */
+                if (overflowPolicy == OverflowPolicy.DROP) {
+                    dropped.increment();
+                    return;
+                }
+                /* waiting could deadlock, or last forever once the dispatcher is gone */
+                if (closed || holdsListenerLock.getAsBoolean()) {
+                    dispatch(type, key, value, nanos);
+                    return;
+                }
+                LockSupport.parkNanos(FULL_PARK_NANOS);
+            } else if (claimed.compareAndSet(sequence, sequence + 1)) {
+                break;
+            }
+        }
+        int index = (int) sequence & mask;
+        Event<K, V> event = ring[index];
+        event.type = type;
+        event.key = key;
+        event.value = value;
+        event.nanos = nanos;
+        published.set(index, sequence); /* volatile write, makes the fields above visible */
+        if (stopped) { /* closed since we checked, nobody else may dispatch the event */
+            drainStopped();
+        } else if (idle) {
+            idle = false;
+            LockSupport.unpark(dispatcher);
+        }
+    }
+
+    private void dispatchEvents() {
+        long next = 0;
+
+        for (;;) {
+            long batchStart = next;
+            while (published.get((int) next & mask) == next) {
+                dispatchSlot(next);
+                next++;
+                if ((next & 63) == 0) { /* free slots now and then during long batches */
+                    consumed = next;
+                }
+            }
+            consumed = next;
+            if (next == batchStart) {
+                if (closed) {
+                    stopped = true;
+                    /* a producer that published before seeing stopped left its event to us */
+                    drainStopped();
+                    return;
+                }
+                idle = true;
+                /* a producer publishing from now on sees idle and unparks us */
+                if (published.get((int) next & mask) != next && !closed) {
+                    LockSupport.park(this);
+                }
+                idle = false;
+            }
+        }
+    }
+
+    /**
+     * Dispatch the events published after the dispatcher thread stopped, on the calling thread.
+     * One thread drains at a time; a thread finding another one draining leaves its event to it,
+     * and the drainer looks for such events again once it is done.
+     */
+    private void drainStopped() {
+        for (;;) {
+            long next = consumed;
+            if (published.get((int) next & mask) != next || !draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                next = consumed;
+                while (published.get((int) next & mask) == next) {
+                    dispatchSlot(next);
+                    next++;
+                    consumed = next;
+                }
+            } finally {
+                draining.set(false);
+            }
+        }
+    }
+
+    private void dispatchSlot(long sequence) {
+        Event<K, V> event = ring[(int) sequence & mask];
+        K key = event.key;
+        V value = event.value;
+        event.key = null; /* don't keep keys and values reachable from the ring */
+        event.value = null;
+        try {
+            dispatch(event.type, key, value, event.nanos);
+        } catch (RuntimeException e) { /* a failing listener must not stop the others */
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        }
+    }
+
+    private void dispatch(int type, K key, V value, long nanos) {
+        switch (type) {
+            case HIT:
+                super.onHit(key);
+                break;
+            case MISS:
+                super.onMiss(key);
+                break;
+            case PUT:
+                super.onPut(key, value);
+                break;
+            case REMOVE:
+                super.onRemove(key, value);
+                break;
+            case EVICT:
+                super.onEvict(key);
+                break;
+            default:
+                super.onLoad(key, nanos);
+                break;
+        }
+    }
+
+    /**
+     * Slot of the ring, reused for every event that goes through it.
+     */
+    private static final class Event<K, V> {
+        private int type;
+        private K key;
+        private V value;
+        private long nanos;
+    }
+}
@@ -1,13 +1,15 @@
 package observerPattern.classes;
 
 import observerPattern.interfaces.CacheListener;
-import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 /**
  * The BroadcastListener broadcasts cache events to other listeners that have been added to it.
  */
 public class BroadcastListener<K, V> implements CacheListener<K, V> {
 
-    private LinkedList<CacheListener<K, V>> listenersList = new LinkedList<>();
+    /* copy-on-write, so events can be broadcast from many threads while listeners are added */
+    private List<CacheListener<K, V>> listenersList = new CopyOnWriteArrayList<>();
 
     /**
      * Add a listener to the broadcast list.
@@ -17,6 +19,15 @@ public class BroadcastListener<K, V> implements CacheListener<K, V> {
     public void addListener(CacheListener<K, V> listener) {
         listenersList.add(listener);
     }
+
+    /**
+     * Remove a listener from the broadcast list.
+     *
+     * @param listener the listener
+     */
+    public void removeListener(CacheListener<K, V> listener) {
+        listenersList.remove(listener);
+    }
     /**
      * Trigger onHit events for all the listeners.
      *
@@ -48,4 +59,36 @@ public class BroadcastListener<K, V> implements CacheListener<K, V> {
             cl.onPut(key, value);
         }
     }
+    /**
+     * Trigger onRemove events for all the listeners.
+     *
+     * @param key the key of the entry
+     * @param value the value that left the cache
+     */
+    public void onRemove(K key, V value) {
+        for (CacheListener<K, V> cl : listenersList) {
+            cl.onRemove(key, value);
+        }
+    }
+    /**
+     * Trigger onEvict events for all the listeners.
+     *
+     * @param key the key of the evicted entry
+     */
+    public void onEvict(K key) {
+        for (CacheListener<K, V> cl : listenersList) {
+            cl.onEvict(key);
+        }
+    }
+    /**
+     * Trigger onLoad events for all the listeners.
+     *
+     * @param key the key that was loaded
+     * @param loadNanos how long the load took, in nanoseconds
+     */
+    public void onLoad(K key, long loadNanos) {
+        for (CacheListener<K, V> cl : listenersList) {
+            cl.onLoad(key, loadNanos);
+        }
+    }
 }
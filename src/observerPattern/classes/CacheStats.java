@@ -0,0 +1,90 @@
+package observerPattern.classes;
+
+/**
+ * Immutable snapshot of the stats collected by a StatsListener.
+ */
+public final class CacheStats {
+    private final long hitCount;
+    private final long missCount;
+    private final long putCount;
+    private final long evictionCount;
+    private final long loadCount;
+    private final long totalLoadTime;
+
+    public CacheStats(long hitCount, long missCount, long putCount, long evictionCount,
+                      long loadCount, long totalLoadTime) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.putCount = putCount;
+        this.evictionCount = evictionCount;
+        this.loadCount = loadCount;
+        this.totalLoadTime = totalLoadTime;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getPutCount() {
+        return putCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public long getLoadCount() {
+        return loadCount;
+    }
+
+    /**
+     * Get the time spent loading values that missed the cache.
+     *
+     * @return the total load time, in nanoseconds
+     */
+    public long getTotalLoadTime() {
+        return totalLoadTime;
+    }
+
+    /**
+     * Get the ratio of lookups that hit the cache, or 1 if there was no lookup.
+     *
+     * @return the hit rate, between 0 and 1
+     */
+    public double getHitRate() {
+        long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    /**
+     * Get the average time a load took, or 0 if there was no load.
+     *
+     * @return the average load time, in nanoseconds
+     */
+    public double getAverageLoadPenalty() {
+        return loadCount == 0 ? 0.0 : (double) totalLoadTime / loadCount;
+    }
+
+    /**
+     * Get the stats of the interval between an earlier snapshot and this one.
+     *
+     * @param earlier the earlier snapshot
+     * @return the difference of every count
+     */
+    public CacheStats minus(CacheStats earlier) {
+        return new CacheStats(hitCount - earlier.hitCount, missCount - earlier.missCount,
+                putCount - earlier.putCount, evictionCount - earlier.evictionCount,
+                loadCount - earlier.loadCount, totalLoadTime - earlier.totalLoadTime);
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{hits=" + hitCount + ", misses=" + missCount + ", puts=" + putCount
+                + ", evictions=" + evictionCount + ", loads=" + loadCount
+                + ", totalLoadTime=" + totalLoadTime + "ns}";
+    }
+}
@@ -4,10 +4,13 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Comparator;
 import observerPattern.interfaces.CacheListener;
+import dataStructures.classes.SpaceSaving;
 import java.util.HashMap;
 import java.util.Collections;
 /**
- * The KeyStatsListener collects key-level stats for cache operations.
+ * The KeyStatsListener collects key-level stats for cache operations. By default it counts every
+ * key exactly; built with a maximum number of tracked keys, it keeps Space-Saving summaries
+ * instead, which use bounded memory and only estimate the counts of the most frequent keys.
  *
  * @param <K>
  * @param <V>
@@ -95,12 +98,39 @@ public class KeyStatsListener<K, V> implements CacheListener<K, V> {
     }
     /* i locally use a hashmap to store data because of the need of O(1) operations */
     private HashMap<K, Node> cacheMap = new HashMap<K, Node>();
+    /* bounded mode, null when counting exactly */
+    private final SpaceSaving<K> hitsSummary;
+    private final SpaceSaving<K> missesSummary;
+    private final SpaceSaving<K> updatesSummary;
+
+    public KeyStatsListener() {
+        hitsSummary = null;
+        missesSummary = null;
+        updatesSummary = null;
+    }
+
+    /**
+     * Create a listener tracking at most maxTrackedKeys keys per kind of event. A count is never
+     * under the real one and over it by at most (events of that kind) / maxTrackedKeys, so e.g.
+     * 1000 keys bound the error to 0.1% of the events; top key queries take O(k).
+     *
+     * @param maxTrackedKeys the number of keys tracked for hits, misses and updates each
+     */
+    public KeyStatsListener(int maxTrackedKeys) {
+        hitsSummary = new SpaceSaving<>(maxTrackedKeys);
+        missesSummary = new SpaceSaving<>(maxTrackedKeys);
+        updatesSummary = new SpaceSaving<>(maxTrackedKeys);
+    }
     /**
      * update the number of hits for a key.
      *
      * @param key the key that was hit
      */
     public void onHit(K key) {
+        if (hitsSummary != null) {
+            hitsSummary.offer(key);
+            return;
+        }
 
         Node node = cacheMap.get(key);
         if (node != null) { /* if the key was hit before */
@@ -117,6 +147,10 @@ public class KeyStatsListener<K, V> implements CacheListener<K, V> {
      * @param key the key that was hit
      */
     public void onMiss(K key) {
+        if (missesSummary != null) {
+            missesSummary.offer(key);
+            return;
+        }
         Node node = cacheMap.get(key);
         if (node != null) { /* if the key is stored */
             node.incMisses(); /* just do increment */
@@ -132,6 +166,10 @@ public class KeyStatsListener<K, V> implements CacheListener<K, V> {
      * @param key the key that was hit
      */
     public void onPut(K key, V value) {
+        if (updatesSummary != null) {
+            updatesSummary.offer(key);
+            return;
+        }
 
         Node node = cacheMap.get(key); /* if the key was stored before */
         if (node != null) {
@@ -149,6 +187,9 @@ public class KeyStatsListener<K, V> implements CacheListener<K, V> {
      * @return number of hits
      */
     public int getKeyHits(K key) {
+        if (hitsSummary != null) {
+            return saturatedInt(hitsSummary.estimate(key));
+        }
         if (cacheMap.get(key) != null) {
             return cacheMap.get(key).getHits();
         }
@@ -162,6 +203,9 @@ public class KeyStatsListener<K, V> implements CacheListener<K, V> {
      * @return number of misses
      */
     public int getKeyMisses(K key) {
+        if (missesSummary != null) {
+            return saturatedInt(missesSummary.estimate(key));
+        }
         if (cacheMap.get(key) != null) {
             return cacheMap.get(key).getMisses();
         }
@@ -175,6 +219,9 @@ public class KeyStatsListener<K, V> implements CacheListener<K, V> {
      * @return number of updates
      */
     public int getKeyUpdates(K key) {
+        if (updatesSummary != null) {
+            return saturatedInt(updatesSummary.estimate(key));
+        }
         if (cacheMap.get(key) != null) {
             return cacheMap.get(key).getUpdates();
         }
@@ -188,6 +235,9 @@ public class KeyStatsListener<K, V> implements CacheListener<K, V> {
      * @return the list of keys
      */
     public List<K> getTopHitKeys(int top) {
+        if (hitsSummary != null) {
+            return hitsSummary.top(top);
+        }
         LinkedList<Node> cacheList = new LinkedList<Node>(); /* listify cache */
         Iterator it = cacheMap.entrySet().iterator();
         while (it.hasNext()) {
@@ -217,6 +267,9 @@ public class KeyStatsListener<K, V> implements CacheListener<K, V> {
      * @return the list of keys
      */
     public List<K> getTopMissedKeys(int top) {
+        if (missesSummary != null) {
+            return missesSummary.top(top);
+        }
         LinkedList<Node> cacheList = new LinkedList<Node>(); /* listify cache */
         Iterator it = cacheMap.entrySet().iterator();
         while (it.hasNext()) {
@@ -246,6 +299,9 @@ public class KeyStatsListener<K, V> implements CacheListener<K, V> {
      * @return the list of keys
      */
     public List<K> getTopUpdatedKeys(int top) {
+        if (updatesSummary != null) {
+            return updatesSummary.top(top);
+        }
         LinkedList<Node> cacheList = new LinkedList<Node>(); /* listify cache */
         Iterator it = cacheMap.entrySet().iterator();
         while (it.hasNext()) {
@@ -268,4 +324,7 @@ public class KeyStatsListener<K, V> implements CacheListener<K, V> {
         return result;
     }
 
+    private static int saturatedInt(long value) {
+        return (int) Math.min(value, Integer.MAX_VALUE);
+    }
 }
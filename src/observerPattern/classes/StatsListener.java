@@ -2,64 +2,102 @@ package observerPattern.classes;
 
 import observerPattern.interfaces.CacheListener;
 
+import java.util.concurrent.atomic.LongAdder;
+
 /**
- * The StatsListener collects hit / miss / update stats for a cache.
+ * The StatsListener collects hit / miss / update / eviction / load stats for a cache. Counters are
+ * LongAdders, so threads sharing the cache count on separate cells and never contend; the cells
+ * are only summed when the stats are read.
  *
  * @param <K>
  * @param <V>
  */
 public class StatsListener<K, V> implements CacheListener<K, V> {
-    private int hits;
-    private int misses;
-    private int updates;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder updates = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder totalLoadTime = new LongAdder();
 
-    public StatsListener() {
-        this.hits = 0;
-        this.misses = 0;
-        this.updates = 0;
-    }
     /**
      * increment the number of total hits.
      */
     public void onHit(K key) {
-        this.hits++;
+        hits.increment();
     }
     /**
      * increment the number of total misses.
      */
     public void onMiss(K key) {
-        this.misses++;
+        misses.increment();
     }
     /**
      * increment the number of total updates.
      */
     public void onPut(K key, V value) {
-        this.updates++;
+        updates.increment();
+    }
+    /**
+     * increment the number of total evictions.
+     */
+    @Override
+    public void onEvict(K key) {
+        evictions.increment();
+    }
+    /**
+     * increment the number of total loads, and add up their time.
+     */
+    @Override
+    public void onLoad(K key, long loadNanos) {
+        loads.increment();
+        totalLoadTime.add(loadNanos);
     }
     /**
-     * Get the number of hits for the cache.
+     * Get the number of hits for the cache, capped at Integer.MAX_VALUE.
      *
      * @return number of hits
      */
     public int getHits() {
-        return this.hits;
+        return saturatedInt(hits.sum());
     }
 
     /**
-     * Get the number of misses for the cache.
+     * Get the number of misses for the cache, capped at Integer.MAX_VALUE.
      *
      * @return number of misses
      */
     public int getMisses() {
-        return this.misses;
+        return saturatedInt(misses.sum());
     }
 
     /**
-     * Get the number of updates (put operations) for the cache.
+     * Get the number of updates (put operations) for the cache, capped at Integer.MAX_VALUE.
      *
      * @return number of updates
      */
     public int getUpdates() {
-        return this.updates;
+        return saturatedInt(updates.sum());
+    }
+
+    /**
+     * Take a snapshot of all the stats. Counts may keep moving while they are summed, but every
+     * count in the snapshot is one the cache actually went through, and the snapshot itself never
+     * changes afterwards.
+     *
+     * @return the stats, as of now
+     */
+    public CacheStats snapshot() {
+        /* onLoad counts a load before adding its time, so reading the time first means every
+           nanosecond summed belongs to a counted load and the average is never inflated */
+        long loadTime = totalLoadTime.sum();
+        long loadCount = loads.sum();
+
+        return new CacheStats(hits.sum(), misses.sum(), updates.sum(), evictions.sum(),
+                loadCount, loadTime);
+    }
+
+    private static int saturatedInt(long value) {
+        return (int) Math.min(value, Integer.MAX_VALUE);
     }
 }
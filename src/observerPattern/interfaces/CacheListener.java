@@ -12,4 +12,33 @@ public interface CacheListener<K, V> {
     void onMiss(K key);
 
     void onPut(K key, V value);
+
+    /**
+     * Called when the cache stops holding a value: the entry was removed or evicted, or the value
+     * was replaced by a put.
+     *
+     * @param key the key of the entry
+     * @param value the value that left the cache
+     */
+    default void onRemove(K key, V value) {
+        /* most listeners only care about hits, misses and puts */
+    }
+
+    /**
+     * Called when the cache evicts an entry on its own, because of its stale policy or because
+     * the entry expired. onRemove is triggered for the entry as well.
+     *
+     * @param key the key of the evicted entry
+     */
+    default void onEvict(K key) {
+    }
+
+    /**
+     * Called when a value that missed the cache was loaded, e.g. a file read by the FileCache.
+     *
+     * @param key the key that was loaded
+     * @param loadNanos how long the load took, in nanoseconds
+     */
+    default void onLoad(K key, long loadNanos) {
+    }
 }
@@ -0,0 +1,89 @@
+package cachingSystem;
+
+import observerPattern.classes.AsyncBroadcastListener;
+import observerPattern.classes.StatsListener;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileCacheAsyncListenersTest {
+    private static final int FILES = 16;
+    private static final int READERS = 8;
+    private static final int ROUNDS = 200;
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Readers fire events under the cache lock while the prefetcher, on the dispatcher thread,
+     * takes that lock too; with a tiny ring and the BLOCK policy this used to deadlock.
+     */
+    @Test
+    void blockingRingDoesNotDeadlockWithThePrefetcher() throws Exception {
+        List<String> paths = createFiles();
+        FileCache cache = FileCache.createCacheWithCapacity(FileCache.Strategy.LRU, 5);
+        cache.enablePrefetching(0.1, 4, 1 << 30);
+        cache.enableAsyncListeners(2, AsyncBroadcastListener.OverflowPolicy.BLOCK);
+
+        ExecutorService readers = Executors.newFixedThreadPool(READERS, runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setDaemon(true); /* don't keep the JVM alive if they deadlock */
+            return thread;
+        });
+        for (int reader = 0; reader < READERS; reader++) {
+            int offset = reader;
+            readers.execute(() -> {
+                for (int round = 0; round < ROUNDS; round++) {
+                    for (int i = 0; i < FILES; i++) {
+                        String path = paths.get((i + offset) % FILES);
+                        assertEquals(path, cache.getFileContents(path));
+                    }
+                }
+            });
+        }
+        readers.shutdown();
+
+        assertTrue(readers.awaitTermination(30, TimeUnit.SECONDS), "the readers deadlocked");
+        cache.disableAsyncListeners();
+    }
+
+    @Test
+    void disablingDeliversQueuedEventsAndGoesBackToSynchronousListeners() throws IOException {
+        List<String> paths = createFiles();
+        StatsListener<String, String> stats = new StatsListener<>();
+        FileCache cache = FileCache.createCacheWithCapacity(FileCache.Strategy.LRU, FILES);
+        cache.addListener(stats);
+        cache.enableAsyncListeners(64, AsyncBroadcastListener.OverflowPolicy.BLOCK);
+
+        for (String path : paths) {
+            cache.getFileContents(path);
+        }
+        cache.disableAsyncListeners();
+        assertEquals(FILES, stats.getMisses());
+
+        cache.getFileContents(paths.get(0)); /* counted right away, on this thread */
+        assertEquals(1, stats.getHits());
+    }
+
+    private List<String> createFiles() throws IOException {
+        List<String> paths = new ArrayList<>();
+
+        for (int i = 0; i < FILES; i++) {
+            Path file = directory.resolve("file" + i);
+            Files.write(file, file.toString().getBytes());
+            paths.add(file.toString());
+        }
+        return paths;
+    }
+}
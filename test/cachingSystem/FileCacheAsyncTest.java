@@ -0,0 +1,64 @@
+package cachingSystem;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileCacheAsyncTest {
+    private static final long TIMEOUT_SECONDS = 10;
+
+    @Test
+    void loadsMissesOnALoaderThread() throws Exception {
+        FileCache cache = FileCache.createCacheWithCapacity(FileCache.Strategy.LRU, 10);
+        AtomicReference<Thread> loader = new AtomicReference<>();
+        cache.setFileLoader(path -> {
+            loader.set(Thread.currentThread());
+            return "contents of " + path;
+        });
+
+        CompletableFuture<String> miss = cache.getFileContentsAsync("file");
+
+        assertEquals("contents of file", miss.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertNotEquals(Thread.currentThread(), loader.get());
+        assertTrue(cache.getFileContentsAsync("file").isDone()); /* a hit completes right away */
+    }
+
+    @Test
+    void getsSeveralFilesInOrder() throws Exception {
+        FileCache cache = FileCache.createCacheWithCapacity(FileCache.Strategy.LRU, 10);
+        cache.setFileLoader(path -> "contents of " + path);
+        cache.putFileContents("b", "cached b");
+
+        Map<String, String> files = cache.getAllAsync(Arrays.asList("c", "b", "a"))
+                .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertEquals(Arrays.asList("c", "b", "a"), Arrays.asList(files.keySet().toArray()));
+        assertEquals("contents of c", files.get("c"));
+        assertEquals("cached b", files.get("b"));
+    }
+
+    @Test
+    void failsTheFutureWhenTheFileCannotBeRead() {
+        FileCache cache = FileCache.createCacheWithCapacity(FileCache.Strategy.LRU, 10);
+        cache.setFileLoader(path -> {
+            throw new IOException("unreadable");
+        });
+
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> cache.getFileContentsAsync("file").get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertInstanceOf(UncheckedIOException.class, failure.getCause());
+    }
+}
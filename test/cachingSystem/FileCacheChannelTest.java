@@ -0,0 +1,59 @@
+package cachingSystem;
+
+import cachingSystem.classes.FileContents;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FileCacheChannelTest {
+
+    @Test
+    void transfersCachedFiles() throws IOException {
+        FileCache cache = FileCache.createCacheWithCapacity(FileCache.Strategy.LRU, 1);
+        cache.setFileLoader(path -> "contents of " + path);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        cache.getFileContents("a");
+        assertEquals(13, cache.transferTo("a", Channels.newChannel(output)));
+        assertEquals("contents of a", output.toString("UTF-8"));
+    }
+
+    /**
+     * A channel that could not be opened over cached contents used to keep its reference, so the
+     * contents were never freed.
+     */
+    @Test
+    void releasesTheContentsWhenTheChannelCannotBeOpened() {
+        FileCache cache = FileCache.createCacheWithCapacity(FileCache.Strategy.LRU, 1);
+        AtomicInteger freed = new AtomicInteger();
+        cache.setFileLoader(path -> "contents of " + path);
+        cache.setContentsStore(contents -> new FileContents() {
+            @Override
+            public String asString() {
+                throw new IllegalStateException("unreadable");
+            }
+
+            @Override
+            public long weight() {
+                return contents.length();
+            }
+
+            @Override
+            protected void deallocate() {
+                freed.incrementAndGet();
+            }
+        });
+        cache.putFileContents("a", "contents of a");
+
+        assertThrows(IllegalStateException.class, () -> cache.openChannel("a"));
+        cache.putFileContents("b", "contents of b"); /* evicts a */
+
+        assertEquals(1, freed.get());
+    }
+}
@@ -0,0 +1,92 @@
+package cachingSystem;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FileCacheGetAllTest {
+
+    @Test
+    void loadsOnlyTheMissingFilesAndKeepsTheOrderOfThePaths() {
+        FileCache cache = FileCache.createCacheWithCapacity(FileCache.Strategy.LRU, 10);
+        List<String> loads = recordLoads(cache);
+        cache.getFileContents("b");
+        loads.clear();
+
+        Map<String, String> contents = cache.getAll(Arrays.asList("c", "b", "a"));
+
+        assertEquals(Arrays.asList("c", "b", "a"), new ArrayList<>(contents.keySet()));
+        assertEquals("contents of c", contents.get("c"));
+        assertEquals("contents of b", contents.get("b"));
+        assertEquals("contents of a", contents.get("a"));
+        assertEquals(2, loads.size());
+        assertEquals(Arrays.asList("a", "c"), sorted(loads));
+
+        loads.clear();
+        cache.getAll(Arrays.asList("a", "b", "c"));
+        assertEquals(0, loads.size());
+    }
+
+    @Test
+    void cachesTheOtherFilesWhenOneCannotBeRead() {
+        FileCache cache = FileCache.createCacheWithCapacity(FileCache.Strategy.LRU, 10);
+        List<String> loads = new ArrayList<>();
+        cache.setFileLoader(path -> {
+            synchronized (loads) {
+                loads.add(path);
+            }
+            if (path.equals("broken")) {
+                throw new IOException("cannot read " + path);
+            }
+            return "contents of " + path;
+        });
+
+        assertThrows(UncheckedIOException.class,
+                () -> cache.getAll(Arrays.asList("a", "broken", "b")));
+        loads.clear();
+
+        assertEquals("contents of a", cache.getFileContents("a"));
+        assertEquals("contents of b", cache.getFileContents("b"));
+        assertEquals(0, loads.size());
+    }
+
+    @Test
+    void batchedLoadsStillEvictByCapacity() {
+        FileCache cache = FileCache.createCacheWithCapacity(FileCache.Strategy.LRU, 2);
+        List<String> loads = recordLoads(cache);
+
+        cache.getAll(Arrays.asList("a", "b", "c"));
+        loads.clear();
+        cache.getFileContents("b");
+        cache.getFileContents("c");
+
+        assertEquals(0, loads.size());
+        cache.getFileContents("a");
+        assertEquals(Arrays.asList("a"), loads);
+    }
+
+    private static List<String> recordLoads(FileCache cache) {
+        List<String> loads = new ArrayList<>();
+        cache.setFileLoader(path -> {
+            synchronized (loads) {
+                loads.add(path);
+            }
+            return "contents of " + path;
+        });
+        return loads;
+    }
+
+    private static List<String> sorted(List<String> paths) {
+        List<String> copy = new ArrayList<>(paths);
+        copy.sort(null);
+        return copy;
+    }
+}
@@ -0,0 +1,52 @@
+package cachingSystem;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FileCachePrefetchingTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Enabling prefetching again used to add a second prefetcher next to the first one, which
+     * kept prefetching with the old confidence and limits.
+     */
+    @Test
+    void replacesThePreviousPrefetcher() throws IOException, InterruptedException {
+        String a = Files.write(directory.resolve("a"), "a".getBytes()).toString();
+        String b = Files.write(directory.resolve("b"), "b".getBytes()).toString();
+        FileCache cache = FileCache.createCacheWithCapacity(FileCache.Strategy.LRU, 1);
+        List<String> loads = new CopyOnWriteArrayList<>();
+        cache.setFileLoader(path -> {
+            loads.add(path);
+            return "contents of " + path;
+        });
+        cache.enablePrefetching(0.5, 4, 1 << 20);
+        cache.enablePrefetching(2, 4, 1 << 20); /* no file is ever confident enough */
+
+        for (String path : new String[] {a, b, a, b, a, a}) { /* the last a hits, b is evicted */
+            cache.getFileContents(path);
+        }
+        Thread.sleep(200); /* give a prefetch of b the time to run */
+
+        assertEquals(2, loads.stream().filter(b::equals).count());
+    }
+
+    @Test
+    void rejectsLimitsThatAreNotPositive() {
+        FileCache cache = FileCache.createCacheWithCapacity(FileCache.Strategy.LRU, 1);
+
+        assertThrows(IllegalArgumentException.class, () -> cache.enablePrefetching(0.5, 0, 1024));
+        assertThrows(IllegalArgumentException.class, () -> cache.enablePrefetching(0.5, 4, 0));
+    }
+}
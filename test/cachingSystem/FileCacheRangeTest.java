@@ -0,0 +1,46 @@
+package cachingSystem;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FileCacheRangeTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsRangesOnceEnabled() throws IOException {
+        Path file = Files.write(directory.resolve("file"), "0123456789abcdef".getBytes());
+        FileCache cache = FileCache.createCacheWithCapacity(FileCache.Strategy.LRU, 10);
+
+        assertThrows(IllegalStateException.class,
+                () -> cache.getFileRange(file.toString(), 0, 4));
+
+        cache.enableRangeCaching(4, 8, 1);
+        assertEquals("3456789a", decode(cache.getFileRange(file.toString(), 3, 8)));
+        assertEquals("ef", decode(cache.getFileRange(file.toString(), 14, 8)));
+    }
+
+    @Test
+    void reportsUnreadableFiles() {
+        FileCache cache = FileCache.createCacheWithCapacity(FileCache.Strategy.LRU, 10);
+        cache.enableRangeCaching(4, 8, 0);
+        String missing = directory.resolve("missing").toString();
+
+        assertThrows(UncheckedIOException.class, () -> cache.getFileRange(missing, 0, 4));
+    }
+
+    private static String decode(ByteBuffer range) {
+        return StandardCharsets.UTF_8.decode(range).toString();
+    }
+}
@@ -0,0 +1,82 @@
+package cachingSystem;
+
+import cachingSystem.classes.NioFileLoader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FileCacheRevalidationTest {
+    private static final long TIMEOUT_SECONDS = 10;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void keepsUnchangedFilesAndReloadsChangedOnes() throws IOException, InterruptedException {
+        Path file = Files.write(directory.resolve("file"), "old".getBytes());
+        AtomicInteger loads = new AtomicInteger();
+        FileCache cache = createCache(loads);
+
+        assertEquals("old", cache.getFileContents(file.toString()));
+        Thread.sleep(5);
+        assertEquals("old", cache.getFileContents(file.toString()));
+        assertEquals(1, loads.get());
+
+        change(file, "newer");
+        Thread.sleep(5);
+        assertEquals("newer", cache.getFileContents(file.toString()));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void revalidatesAsynchronously() throws Exception {
+        Path file = Files.write(directory.resolve("file"), "old".getBytes());
+        AtomicInteger loads = new AtomicInteger();
+        FileCache cache = createCache(loads);
+
+        assertEquals("old", getAsync(cache, file));
+        Thread.sleep(5);
+        assertEquals("old", getAsync(cache, file));
+        assertEquals(1, loads.get());
+
+        change(file, "newer");
+        Thread.sleep(5);
+        assertEquals("newer", getAsync(cache, file));
+        assertEquals(2, loads.get());
+        assertEquals("newer", cache.getFileContents(file.toString()));
+    }
+
+    private static FileCache createCache(AtomicInteger loads) {
+        FileCache cache = FileCache.createCacheWithCapacity(FileCache.Strategy.LRU, 10);
+        NioFileLoader loader = new NioFileLoader();
+
+        cache.setRevalidationInterval(1);
+        cache.setFileLoader(path -> {
+            loads.incrementAndGet();
+            return loader.load(path);
+        });
+        return cache;
+    }
+
+    private static String getAsync(FileCache cache, Path file)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        return cache.getFileContentsAsync(file.toString()).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private static void change(Path file, String contents) throws IOException {
+        FileTime modified = Files.getLastModifiedTime(file);
+
+        Files.write(file, contents.getBytes());
+        Files.setLastModifiedTime(file, FileTime.fromMillis(modified.toMillis() + 2000));
+    }
+}
@@ -0,0 +1,80 @@
+package cachingSystem;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileCacheSingleFlightTest {
+    private static final int CALLERS = 8;
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        FileCache cache = FileCache.createCacheWithCapacity(FileCache.Strategy.LRU, 10);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        cache.setFileLoader(path -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            awaitQuietly(release);
+            return "contents of " + path;
+        });
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        List<Future<String>> results = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(callers.submit(() -> cache.getFileContents("file")));
+            }
+            assertTrue(loading.await(10, TimeUnit.SECONDS));
+            Thread.sleep(50); /* let the other callers join the load */
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("contents of file", result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+        assertEquals("contents of file", cache.getFileContents("file"));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void failedLoadsReachEveryCallerAndAreRetried() {
+        FileCache cache = FileCache.createCacheWithCapacity(FileCache.Strategy.LRU, 10);
+        AtomicInteger loads = new AtomicInteger();
+        cache.setFileLoader(path -> {
+            if (loads.incrementAndGet() == 1) {
+                throw new IOException("unreadable");
+            }
+            return "contents";
+        });
+
+        assertThrows(UncheckedIOException.class, () -> cache.getFileContents("file"));
+        assertEquals("contents", cache.getFileContents("file"));
+        assertEquals(2, loads.get());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package cachingSystem;
+
+import cachingSystem.classes.FileContents;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FileCacheSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void restoresTheContentsAndTheirRecencyOrder() {
+        String snapshot = directory.resolve("snapshot").toString();
+        FileCache saved = FileCache.createCacheWithCapacity(FileCache.Strategy.LRU, 3);
+        recordLoads(saved);
+        for (String path : Arrays.asList("a", "b", "c", "a")) {
+            saved.getFileContents(path);
+        }
+        saved.saveSnapshot(snapshot);
+
+        FileCache restored = FileCache.createCacheWithCapacity(FileCache.Strategy.LRU, 3);
+        List<String> loads = recordLoads(restored);
+        assertEquals(3, restored.restoreSnapshot(snapshot));
+        restored.getFileContents("d"); /* evicts b, the least recently used when saved */
+
+        assertEquals("contents of c", restored.getFileContents("c"));
+        assertEquals("contents of a", restored.getFileContents("a"));
+        assertEquals(Collections.singletonList("d"), loads);
+        restored.getFileContents("b");
+        assertEquals(Arrays.asList("d", "b"), loads);
+    }
+
+    @Test
+    void keepsTheFilesAlreadyCached() {
+        String snapshot = directory.resolve("snapshot").toString();
+        FileCache saved = FileCache.createCacheWithCapacity(FileCache.Strategy.LRU, 3);
+        saved.setFileLoader(path -> "old " + path);
+        saved.getFileContents("a");
+        saved.saveSnapshot(snapshot);
+
+        FileCache restored = FileCache.createCacheWithCapacity(FileCache.Strategy.LRU, 3);
+        restored.setFileLoader(path -> "new " + path);
+        restored.getFileContents("a");
+
+        assertEquals(0, restored.restoreSnapshot(snapshot));
+        assertEquals("new a", restored.getFileContents("a"));
+    }
+
+    @Test
+    void leavesOutTheFilesThatWouldHaveExpired() throws InterruptedException {
+        String snapshot = directory.resolve("snapshot").toString();
+        FileCache saved = FileCache.createCacheWithExpiration(50);
+        recordLoads(saved);
+        saved.getFileContents("a");
+        saved.saveSnapshot(snapshot);
+
+        Thread.sleep(100);
+
+        FileCache restored = FileCache.createCacheWithExpiration(50);
+        assertEquals(0, restored.restoreSnapshot(snapshot));
+    }
+
+    @Test
+    void overwritesThePreviousSnapshot() {
+        String snapshot = directory.resolve("snapshot").toString();
+        FileCache cache = FileCache.createCacheWithCapacity(FileCache.Strategy.LRU, 3);
+        recordLoads(cache);
+        cache.getFileContents("a");
+        cache.saveSnapshot(snapshot);
+        cache.getFileContents("b");
+        cache.saveSnapshot(snapshot);
+
+        FileCache restored = FileCache.createCacheWithCapacity(FileCache.Strategy.LRU, 3);
+        assertEquals(2, restored.restoreSnapshot(snapshot));
+    }
+
+    /**
+     * Saving used to decode every entry to a String and encode it back, even when the contents
+     * already kept their UTF-8 bytes.
+     */
+    @Test
+    void writesTheBytesTheContentsKeep() {
+        String snapshot = directory.resolve("snapshot").toString();
+        FileCache saved = FileCache.createCacheWithCapacity(FileCache.Strategy.LRU, 3);
+        saved.setContentsStore(contents -> new FileContents() {
+            private final ByteBuffer bytes = StandardCharsets.UTF_8.encode(contents);
+
+            @Override
+            public String asString() {
+                throw new IllegalStateException("decoded");
+            }
+
+            @Override
+            public ByteBuffer asByteBuffer() {
+                return bytes.asReadOnlyBuffer();
+            }
+
+            @Override
+            public boolean holdsBytes() {
+                return true;
+            }
+
+            @Override
+            public long weight() {
+                return bytes.capacity();
+            }
+        });
+        saved.putFileContents("a", "contents of a");
+        saved.saveSnapshot(snapshot);
+
+        FileCache restored = FileCache.createCacheWithCapacity(FileCache.Strategy.LRU, 3);
+        assertEquals(1, restored.restoreSnapshot(snapshot));
+        assertEquals("contents of a", restored.getFileContents("a"));
+    }
+
+    @Test
+    void rejectsStrategiesWithoutARecencyOrder() {
+        FileCache cache = FileCache.createCacheWithCapacity(FileCache.Strategy.FIFO, 3);
+        String snapshot = directory.resolve("snapshot").toString();
+
+        assertThrows(UnsupportedOperationException.class, () -> cache.saveSnapshot(snapshot));
+        assertThrows(UnsupportedOperationException.class, () -> cache.restoreSnapshot(snapshot));
+    }
+
+    @Test
+    void rejectsFilesThatAreNotSnapshots() throws IOException {
+        Path snapshot = Files.write(directory.resolve("snapshot"), "not a snapshot".getBytes());
+        FileCache cache = FileCache.createCacheWithCapacity(FileCache.Strategy.LRU, 3);
+
+        assertThrows(UncheckedIOException.class, () -> cache.restoreSnapshot(snapshot.toString()));
+    }
+
+    private static List<String> recordLoads(FileCache cache) {
+        List<String> loads = new ArrayList<>();
+        cache.setFileLoader(path -> {
+            synchronized (loads) {
+                loads.add(path);
+            }
+            return "contents of " + path;
+        });
+        return loads;
+    }
+}
@@ -0,0 +1,145 @@
+package cachingSystem;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileCacheWatchInvalidationTest {
+    private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void dropsEntriesWhoseFileChanged() throws IOException, InterruptedException {
+        Path file = Files.write(directory.resolve("file"), "old".getBytes());
+        FileCache cache = FileCache.createCacheWithCapacity(FileCache.Strategy.LRU, 10);
+        cache.enableWatchInvalidation(false);
+
+        try {
+            assertEquals("old", cache.getFileContents(file.toString()));
+            Files.write(file, "new".getBytes());
+
+            awaitContents(cache, file, "new");
+        } finally {
+            cache.disableWatchInvalidation();
+        }
+    }
+
+    /**
+     * A file that failed to load used to stay watched without being cached; its next change made
+     * LRUCache.remove throw on the watcher thread, which then died and left every entry stale.
+     */
+    @Test
+    void survivesChangesToFilesThatFailedToLoad() throws IOException, InterruptedException {
+        Path missing = directory.resolve("missing");
+        Path file = Files.write(directory.resolve("file"), "old".getBytes());
+        FileCache cache = FileCache.createCacheWithCapacity(FileCache.Strategy.LRU, 10);
+        cache.enableWatchInvalidation(false);
+
+        try {
+            assertThrows(UncheckedIOException.class, () -> cache.getFileContents(missing.toString()));
+            Files.write(missing, "created".getBytes());
+            assertEquals("old", cache.getFileContents(file.toString()));
+            Files.write(file, "new".getBytes());
+
+            awaitContents(cache, file, "new");
+        } finally {
+            cache.disableWatchInvalidation();
+        }
+    }
+
+    /**
+     * A change made while the file was being loaded used to find nothing to drop, and the load
+     * then cached the old contents for good.
+     */
+    @Test
+    void doesNotCacheContentsChangedWhileLoading() throws Exception {
+        Path file = Files.write(directory.resolve("file"), "old".getBytes());
+        FileCache cache = FileCache.createCacheWithCapacity(FileCache.Strategy.LRU, 10);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaded = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        cache.setFileLoader(path -> {
+            String contents = new String(Files.readAllBytes(Paths.get(path)));
+            if (loads.incrementAndGet() == 1) {
+                loaded.countDown();
+                awaitQuietly(release);
+            }
+            return contents;
+        });
+        cache.enableWatchInvalidation(false);
+
+        try {
+            CompletableFuture<String> load = cache.getFileContentsAsync(file.toString());
+            assertTrue(loaded.await(10, TimeUnit.SECONDS));
+            Files.write(file, "new".getBytes());
+            Thread.sleep(500); /* let the watcher report the change while the load waits */
+            release.countDown();
+
+            assertEquals("new", load.get(10, TimeUnit.SECONDS));
+            assertEquals("new", cache.getFileContents(file.toString()));
+        } finally {
+            release.countDown();
+            cache.disableWatchInvalidation();
+        }
+    }
+
+    /**
+     * Enabling watch invalidation again used to replace the watcher without closing the previous
+     * one, whose thread and WatchService then lived as long as the JVM.
+     */
+    @Test
+    void closesThePreviousWatcherWhenEnabledAgain() throws InterruptedException {
+        FileCache cache = FileCache.createCacheWithCapacity(FileCache.Strategy.LRU, 10);
+        long watchersBefore = countWatcherThreads();
+
+        cache.enableWatchInvalidation(false);
+        cache.enableWatchInvalidation(true);
+        cache.disableWatchInvalidation();
+
+        long deadline = System.nanoTime() + TIMEOUT_NANOS;
+        while (countWatcherThreads() > watchersBefore && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(watchersBefore, countWatcherThreads());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long countWatcherThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("file-cache-watcher"))
+                .count();
+    }
+
+    private static void awaitContents(FileCache cache, Path file, String expected)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT_NANOS;
+
+        while (!expected.equals(cache.getFileContents(file.toString()))
+                && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, cache.getFileContents(file.toString()));
+    }
+}
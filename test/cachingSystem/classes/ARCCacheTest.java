@@ -0,0 +1,71 @@
+package cachingSystem.classes;
+
+import org.junit.jupiter.api.Test;
+
+import static cachingSystem.classes.BoundedCaches.access;
+import static cachingSystem.classes.BoundedCaches.withCapacity;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ARCCacheTest {
+    private static final int CAPACITY = 10;
+
+    @Test
+    void keysSeenTwiceSurviveAScan() {
+        ARCCache<Integer, Integer> cache = withCapacity(new ARCCache<>(CAPACITY), CAPACITY);
+
+        for (int key = 0; key < 5; key++) {
+            access(cache, key);
+            access(cache, key); /* now in T2 */
+        }
+        for (int key = 100; key < 100 + 10 * CAPACITY; key++) {
+            access(cache, key);
+        }
+
+        assertEquals(CAPACITY, cache.size());
+        for (int key = 0; key < 5; key++) {
+            assertTrue(cache.containsKey(key), "frequent key " + key + " was evicted");
+        }
+    }
+
+    @Test
+    void evictedKeysComeBackAsFrequent() {
+        ARCCache<Integer, Integer> cache = withCapacity(new ARCCache<>(CAPACITY), CAPACITY);
+
+        for (int key = 0; key < CAPACITY; key++) {
+            access(cache, key);
+        }
+        for (int key = CAPACITY / 2; key < CAPACITY; key++) {
+            access(cache, key); /* T2 now holds the upper half, T1 the lower one */
+        }
+        for (int key = 100; key < 100 + CAPACITY / 2; key++) {
+            access(cache, key); /* pushes the lower half out of T1, into the ghost list B1 */
+        }
+        assertFalse(cache.containsKey(0));
+
+        access(cache, 0); /* a ghost hit, put straight in T2 */
+        for (int key = 200; key < 200 + 2 * CAPACITY; key++) {
+            access(cache, key);
+        }
+
+        assertTrue(cache.containsKey(0));
+        assertEquals(CAPACITY, cache.size());
+    }
+
+    @Test
+    void ghostsAreNotResident() {
+        ARCCache<Integer, Integer> cache = withCapacity(new ARCCache<>(CAPACITY), CAPACITY);
+
+        for (int key = 0; key < 2 * CAPACITY; key++) {
+            access(cache, key);
+        }
+
+        assertNull(cache.get(0));
+        assertNull(cache.remove(0));
+        assertEquals(CAPACITY, cache.size());
+        cache.clearAll();
+        assertTrue(cache.isEmpty());
+    }
+}
@@ -0,0 +1,132 @@
+package cachingSystem.classes;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlockCacheTest {
+    private static final int BLOCK_SIZE = 1024;
+    private static final int FILE_SIZE = 10000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsRangesWithinAndAcrossBlocks() throws IOException {
+        Path file = createFile();
+        BlockCache cache = new BlockCache(BLOCK_SIZE, 16, 0, Runnable::run);
+
+        assertEquals(expected(100, 200), cache.read(file.toString(), 100, 200));
+        assertEquals(expected(1000, 3000), cache.read(file.toString(), 1000, 3000));
+        assertEquals(expected(2048, 1024), cache.read(file.toString(), 2048, 1024));
+        assertTrue(cache.read(file.toString(), 100, 200).isReadOnly());
+    }
+
+    @Test
+    void stopsAtTheEndOfTheFile() throws IOException {
+        Path file = createFile();
+        BlockCache cache = new BlockCache(BLOCK_SIZE, 16, 0, Runnable::run);
+
+        assertEquals(expected(9900, 100), cache.read(file.toString(), 9900, 500));
+        assertEquals(expected(8000, 2000), cache.read(file.toString(), 8000, 5000));
+        assertEquals(0, cache.read(file.toString(), 20000, 10).remaining());
+        assertEquals(0, cache.read(file.toString(), 100, 0).remaining());
+    }
+
+    @Test
+    void servesCachedBlocksWithoutReadingTheFileAgain() throws IOException {
+        Path file = createFile();
+        BlockCache cache = new BlockCache(BLOCK_SIZE, 16, 0, Runnable::run);
+        cache.read(file.toString(), 0, 2000);
+
+        Files.delete(file);
+
+        assertEquals(expected(500, 1000), cache.read(file.toString(), 500, 1000));
+        assertThrows(IOException.class, () -> cache.read(file.toString(), 5000, 10));
+    }
+
+    @Test
+    void readsAheadOfSequentialReadsOnly() throws IOException {
+        Path file = createFile();
+        List<Runnable> readsAhead = new ArrayList<>();
+        BlockCache cache = new BlockCache(BLOCK_SIZE, 16, 2, readsAhead::add);
+
+        cache.read(file.toString(), 0, 100);
+        cache.read(file.toString(), 5000, 100); /* not where the previous read ended */
+        assertTrue(readsAhead.isEmpty());
+
+        cache.read(file.toString(), 5100, 100);
+        assertEquals(2, readsAhead.size());
+        readsAhead.forEach(Runnable::run);
+        Files.delete(file);
+
+        assertEquals(expected(6144, 2048), cache.read(file.toString(), 6144, 2048));
+    }
+
+    /**
+     * Read-ahead used to go on past the end of the file, and the empty blocks it read evicted
+     * blocks holding data.
+     */
+    @Test
+    void readsAheadUpToTheEndOfTheFileOnly() throws IOException {
+        Path file = createFile();
+        List<Runnable> readsAhead = new ArrayList<>();
+        BlockCache cache = new BlockCache(BLOCK_SIZE, 16, 4, readsAhead::add);
+
+        cache.read(file.toString(), 8192, 100);
+        cache.read(file.toString(), 8292, 100);
+
+        assertEquals(1, readsAhead.size()); /* the last block, 9 */
+    }
+
+    @Test
+    void doesNotCacheBlocksPastTheEndOfTheFile() throws IOException {
+        Path file = createFile();
+        BlockCache cache = new BlockCache(BLOCK_SIZE, 2, 0, Runnable::run);
+        cache.read(file.toString(), 0, 100);
+
+        cache.read(file.toString(), 20000, 10);
+        cache.read(file.toString(), 30000, 10);
+        Files.delete(file);
+
+        assertEquals(expected(0, 100), cache.read(file.toString(), 0, 100));
+    }
+
+    @Test
+    void rejectsNegativeRanges() {
+        BlockCache cache = new BlockCache(BLOCK_SIZE, 16, 0, Runnable::run);
+
+        assertThrows(IllegalArgumentException.class, () -> cache.read("file", -1, 10));
+        assertThrows(IllegalArgumentException.class, () -> cache.read("file", 0, -1));
+        assertThrows(IllegalArgumentException.class, () -> new BlockCache(0, 16, 0, Runnable::run));
+    }
+
+    private Path createFile() throws IOException {
+        byte[] bytes = new byte[FILE_SIZE];
+
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (i % 251);
+        }
+        return Files.write(directory.resolve("file"), bytes);
+    }
+
+    private static ByteBuffer expected(int offset, int length) {
+        ByteBuffer bytes = ByteBuffer.allocate(length);
+
+        for (int i = offset; i < offset + length; i++) {
+            bytes.put((byte) (i % 251));
+        }
+        bytes.flip();
+        return bytes;
+    }
+}
@@ -0,0 +1,37 @@
+package cachingSystem.classes;
+
+import cachingSystem.interfaces.CacheStalePolicy;
+import dataStructures.classes.Pair;
+
+/**
+ * Helpers bounding the caches under test by their number of entries, the way FileCache does.
+ */
+final class BoundedCaches {
+
+    private BoundedCaches() {
+
+    }
+
+    static <K, V, C extends ObservableCache<K, V>> C withCapacity(C cache, int capacity) {
+        cache.setStalePolicy(new CacheStalePolicy<K, V>() {
+            @Override
+            public boolean shouldRemoveEldestEntry(Pair<K, V> entry) {
+                return cache.size() > capacity;
+            }
+        });
+        return cache;
+    }
+
+    /**
+     * Read a key through the cache, putting it on a miss like FileCache does.
+     *
+     * @return true on a hit
+     */
+    static <K> boolean access(ObservableCache<K, K> cache, K key) {
+        if (cache.get(key) != null) {
+            return true;
+        }
+        cache.put(key, key);
+        return false;
+    }
+}
@@ -0,0 +1,87 @@
+package cachingSystem.classes;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static cachingSystem.classes.BoundedCaches.withCapacity;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClockCacheTest {
+
+    @Test
+    void givesVisitedEntriesASecondChance() {
+        ClockCache<String, String> cache = withCapacity(new ClockCache<>(3), 3);
+
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.put("c", "3");
+        cache.get("a");
+        cache.put("d", "4");
+
+        assertEquals(3, cache.size());
+        assertTrue(cache.containsKey("a"));
+        assertFalse(cache.containsKey("b"));
+        assertTrue(cache.containsKey("c"));
+        assertTrue(cache.containsKey("d"));
+    }
+
+    @Test
+    void clearsTheBitOfEveryEntryItSweepsOver() {
+        ClockCache<String, String> cache = withCapacity(new ClockCache<>(3), 3);
+
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.put("c", "3");
+        cache.get("a");
+        cache.get("b");
+        cache.get("c");
+        cache.put("d", "4"); /* the hand passes every entry before it finds a victim */
+        cache.put("e", "5");
+
+        assertEquals(3, cache.size());
+        assertFalse(cache.containsKey("a")); /* its second chance was used up by the sweep */
+        assertTrue(cache.containsKey("b"));
+        assertTrue(cache.containsKey("c"));
+        assertTrue(cache.containsKey("e"));
+    }
+
+    @Test
+    void growsTheRingPastItsInitialCapacity() {
+        ClockCache<Integer, Integer> cache = new ClockCache<>(2);
+
+        for (int key = 0; key < 100; key++) {
+            cache.put(key, key);
+        }
+
+        assertEquals(100, cache.size());
+        for (int key = 0; key < 100; key++) {
+            assertEquals(Integer.valueOf(key), cache.get(key));
+        }
+    }
+
+    @Test
+    void reusesTheSlotsOfRemovedEntries() {
+        ClockCache<Integer, Integer> cache = withCapacity(new ClockCache<>(4), 4);
+
+        for (int key = 0; key < 4; key++) {
+            cache.put(key, key);
+        }
+        assertEquals(Integer.valueOf(2), cache.remove(2));
+        assertNull(cache.remove(2));
+        cache.put(4, 4);
+
+        List<Integer> keys = new ArrayList<>();
+        for (int key = 0; key <= 4; key++) {
+            if (cache.containsKey(key)) {
+                keys.add(key);
+            }
+        }
+        assertEquals(4, keys.size());
+        assertFalse(keys.contains(2));
+    }
+}
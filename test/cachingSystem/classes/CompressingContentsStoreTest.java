@@ -0,0 +1,65 @@
+package cachingSystem.classes;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressingContentsStoreTest {
+    private static final String TEXT =
+            String.join("\n", Collections.nCopies(500, "the quick brown fox jumps over the lazy dög"));
+
+    @Test
+    void compressesLargeTextAndDecodesItBack() {
+        CompressingContentsStore store = new CompressingContentsStore(1024, 1 << 20);
+
+        FileContents contents = store.store(TEXT);
+
+        assertInstanceOf(CompressedFileContents.class, contents);
+        assertTrue(contents.weight() < TEXT.length() / 4);
+        assertEquals(TEXT, contents.asString());
+        assertEquals(ByteBuffer.wrap(TEXT.getBytes(StandardCharsets.UTF_8)),
+                contents.asByteBuffer());
+    }
+
+    @Test
+    void keepsContentsBelowTheThresholdAsTheyAre() {
+        CompressingContentsStore store = new CompressingContentsStore(1024, 1 << 20);
+
+        FileContents contents = store.store("short");
+
+        assertInstanceOf(HeapFileContents.class, contents);
+        assertEquals("short", contents.asString());
+    }
+
+    @Test
+    void decodesOnceThroughTheSideCache() {
+        CompressingContentsStore store = new CompressingContentsStore(1024, 1 << 20);
+        FileContents contents = store.store(TEXT);
+
+        String decoded = contents.asString();
+
+        assertSame(decoded, contents.asString());
+        assertEquals(1, store.getDecompressedCount());
+        contents.release();
+        assertEquals(0, store.getDecompressedCount());
+    }
+
+    @Test
+    void boundsTheSideCacheBySize() {
+        long decodedBytes = (long) Character.BYTES * TEXT.length();
+        CompressingContentsStore store = new CompressingContentsStore(1024, 2 * decodedBytes + 64);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(TEXT + i, store.store(TEXT + i).asString());
+        }
+
+        assertEquals(2, store.getDecompressedCount());
+    }
+}
@@ -0,0 +1,94 @@
+package cachingSystem.classes;
+
+import cachingSystem.interfaces.CacheStalePolicy;
+import dataStructures.classes.Pair;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentLRUCacheTest {
+    private static final int CAPACITY = 64;
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntry() {
+        ConcurrentLRUCache<String, String> cache = createCache(3);
+
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.put("c", "3");
+        cache.get("a");
+        cache.put("d", "4");
+
+        assertEquals(3, cache.size());
+        assertNull(cache.get("b"));
+        assertEquals("1", cache.get("a"));
+        assertEquals("4", cache.get("d"));
+    }
+
+    @Test
+    void replacesValuesInPlace() {
+        ConcurrentLRUCache<String, String> cache = createCache(3);
+
+        cache.put("a", "1");
+        cache.put("a", "2");
+
+        assertEquals(1, cache.size());
+        assertEquals("2", cache.get("a"));
+        assertEquals("2", cache.remove("a"));
+        assertNull(cache.remove("a"));
+    }
+
+    /**
+     * A put whose maintenance request came in while a read, a remove or getEldestEntry held the
+     * eviction lock used to be dropped, leaving the cache above its capacity until the next put.
+     */
+    @Test
+    void putsEvictEvenWhileAnotherThreadHoldsTheEvictionLock() throws InterruptedException {
+        ConcurrentLRUCache<Integer, Integer> cache = createCache(CAPACITY);
+        AtomicBoolean done = new AtomicBoolean();
+        List<Thread> lockHolders = new ArrayList<>();
+
+        for (int t = 0; t < 2; t++) {
+            Thread thread = new Thread(() -> {
+                while (!done.get()) {
+                    cache.getEldestEntry();
+                }
+            });
+            lockHolders.add(thread);
+            thread.start();
+        }
+        try {
+            for (int key = 0; key < 2_000; key++) {
+                cache.put(key, key);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+                while (cache.size() > CAPACITY && System.nanoTime() < deadline) {
+                    Thread.yield(); /* the lock holder drains once it lets go */
+                }
+                assertTrue(cache.size() <= CAPACITY, "size " + cache.size() + " after " + key);
+            }
+        } finally {
+            done.set(true);
+            for (Thread thread : lockHolders) {
+                thread.join();
+            }
+        }
+    }
+
+    private static <K, V> ConcurrentLRUCache<K, V> createCache(int capacity) {
+        ConcurrentLRUCache<K, V> cache = new ConcurrentLRUCache<>();
+        cache.setStalePolicy(new CacheStalePolicy<K, V>() {
+            @Override
+            public boolean shouldRemoveEldestEntry(Pair<K, V> entry) {
+                return cache.size() > capacity;
+            }
+        });
+        return cache;
+    }
+}
@@ -0,0 +1,156 @@
+package cachingSystem.classes;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ContentsChannelTest {
+
+    @Test
+    void readsAndSeeksThroughTheBytes() throws IOException {
+        ContentsChannel channel = new ContentsChannel(new HeapFileContents("hello world"));
+        ByteBuffer buffer = ByteBuffer.allocate(5);
+
+        assertEquals(11, channel.size());
+        assertEquals(5, channel.read(buffer));
+        assertEquals("hello", new String(buffer.array(), StandardCharsets.UTF_8));
+        channel.position(6);
+        buffer.clear();
+        assertEquals(5, channel.read(buffer));
+        assertEquals("world", new String(buffer.array(), StandardCharsets.UTF_8));
+        assertEquals(-1, channel.read(buffer));
+        channel.close();
+    }
+
+    @Test
+    void transfersTheRemainingBytes() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        try (ContentsChannel channel = new ContentsChannel(new HeapFileContents("hello world"))) {
+            channel.position(6);
+            assertEquals(5, channel.transferTo(Channels.newChannel(output)));
+        }
+        assertEquals("world", output.toString("UTF-8"));
+    }
+
+    @Test
+    void releasesItsReferenceOnClose() throws IOException {
+        HeapFileContents contents = new HeapFileContents("hello");
+        ContentsChannel channel = new ContentsChannel(contents);
+
+        channel.close();
+        channel.close(); /* only the first close releases */
+
+        assertFalse(contents.retain());
+        assertFalse(channel.isOpen());
+        assertThrows(ClosedChannelException.class, () -> channel.read(ByteBuffer.allocate(1)));
+    }
+
+    @Test
+    void encodesStringsOnTheFlyLikeGetBytes() throws IOException {
+        String text = "a\u00e9\u20ac\ud83d\ude00 lone \ud800 and \udc00 " + repeat("x\u00e9", 10000);
+        byte[] expected = text.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        try (ContentsChannel channel = new ContentsChannel(new HeapFileContents(text))) {
+            assertEquals(expected.length, channel.size());
+            ByteBuffer buffer = ByteBuffer.allocate(3); /* smaller than some chars */
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                output.write(buffer.array(), 0, buffer.limit());
+                buffer.clear();
+            }
+            assertEquals(expected.length, channel.position());
+        }
+        assertArrayEquals(expected, output.toByteArray());
+    }
+
+    @Test
+    void seeksIntoTheMiddleOfAnEncodedChar() throws IOException {
+        String text = "\u20ac\ud83d\ude00!";
+        byte[] expected = text.getBytes(StandardCharsets.UTF_8);
+
+        try (ContentsChannel channel = new ContentsChannel(new HeapFileContents(text))) {
+            for (int position = 0; position <= expected.length; position++) {
+                ByteBuffer buffer = ByteBuffer.allocate(expected.length);
+                channel.position(position);
+                channel.read(buffer);
+                assertEquals(ByteBuffer.wrap(expected, position, expected.length - position),
+                        buffer.flip());
+            }
+            channel.position(100);
+            assertEquals(expected.length, channel.position());
+            assertEquals(-1, channel.read(ByteBuffer.allocate(1)));
+        }
+    }
+
+    @Test
+    void resumesATransferToAFullTarget() throws IOException {
+        String text = repeat("\u00e9t\u00e9 ", 5000);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        WritableByteChannel sink = Channels.newChannel(output);
+        WritableByteChannel target = new WritableByteChannel() { /* takes 1000 bytes per call */
+            private boolean full;
+
+            @Override
+            public int write(ByteBuffer source) throws IOException {
+                full = !full;
+                if (full) {
+                    return 0;
+                }
+                ByteBuffer part = source.duplicate();
+                part.limit(part.position() + Math.min(1000, part.remaining()));
+                int count = sink.write(part);
+                source.position(source.position() + count);
+                return count;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        try (ContentsChannel channel = new ContentsChannel(new HeapFileContents(text))) {
+            long total = 0;
+            for (int i = 0; i < 10000 && total < channel.size(); i++) {
+                total += channel.transferTo(target);
+            }
+            assertEquals(channel.size(), total);
+        }
+        assertEquals(text, output.toString("UTF-8"));
+    }
+
+    @Test
+    void readsBytesKeptByTheContents() throws IOException {
+        byte[] bytes = "h\u00e9llo".getBytes(StandardCharsets.UTF_8);
+        FileContents contents = new MappedFileContents(ByteBuffer.wrap(bytes));
+        ByteBuffer buffer = ByteBuffer.allocate(bytes.length);
+
+        try (ContentsChannel channel = new ContentsChannel(contents)) {
+            channel.position(1);
+            assertEquals(bytes.length - 1, channel.read(buffer));
+        }
+        assertEquals(ByteBuffer.wrap(bytes, 1, bytes.length - 1), buffer.flip());
+    }
+
+    private static String repeat(String text, int times) {
+        return String.join("", Collections.nCopies(times, text));
+    }
+}
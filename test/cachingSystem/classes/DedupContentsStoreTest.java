@@ -0,0 +1,95 @@
+package cachingSystem.classes;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DedupContentsStoreTest {
+
+    @Test
+    void identicalContentsShareOneBlob() {
+        DedupContentsStore store = new DedupContentsStore();
+
+        FileContents first = store.store("same");
+        FileContents second = store.store("same");
+        FileContents other = store.store("other");
+
+        assertEquals(2, store.getBlobCount());
+        assertEquals("same", first.asString());
+        assertEquals("same", second.asString());
+        assertEquals("other", other.asString());
+        assertEquals(first.weight(), second.weight());
+    }
+
+    @Test
+    void freesTheBlobWithItsLastHandle() {
+        CountingStore blobStore = new CountingStore();
+        DedupContentsStore store = new DedupContentsStore(blobStore);
+        FileContents first = store.store("same");
+        FileContents second = store.store("same");
+
+        first.release();
+        assertEquals(1, store.getBlobCount());
+        assertEquals(0, blobStore.freed);
+        assertEquals("same", second.asString());
+
+        second.release();
+        assertEquals(0, store.getBlobCount());
+        assertEquals(1, blobStore.freed);
+    }
+
+    @Test
+    void storesTheBlobAgainOnceItWasFreed() {
+        CountingStore blobStore = new CountingStore();
+        DedupContentsStore store = new DedupContentsStore(blobStore);
+
+        store.store("same").release();
+        FileContents again = store.store("same");
+
+        assertEquals(2, blobStore.stored);
+        assertEquals("same", again.asString());
+    }
+
+    @Test
+    void handlesCanBeRetainedUntilReleased() {
+        DedupContentsStore store = new DedupContentsStore();
+        FileContents contents = store.store("same");
+
+        assertTrue(contents.retain());
+        contents.release();
+        assertEquals(1, store.getBlobCount());
+        contents.release();
+        assertEquals(0, store.getBlobCount());
+        assertFalse(contents.retain());
+    }
+
+    @Test
+    void sharedHandlesExposeTheBytesOfTheBlob() {
+        DedupContentsStore store = new DedupContentsStore();
+
+        assertEquals(ByteBuffer.wrap("same".getBytes()), store.store("same").asByteBuffer());
+    }
+
+    /**
+     * Heap store counting the contents it stores and the ones freed.
+     */
+    private static final class CountingStore extends HeapContentsStore {
+        private int stored;
+        private int freed;
+
+        @Override
+        public FileContents store(String contents) {
+            stored++;
+            return new HeapFileContents(contents) {
+                @Override
+                protected void deallocate() {
+                    freed++;
+                }
+            };
+        }
+    }
+}
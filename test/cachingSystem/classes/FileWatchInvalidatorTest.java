@@ -0,0 +1,74 @@
+package cachingSystem.classes;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class FileWatchInvalidatorTest {
+    private static final long TIMEOUT_SECONDS = 10;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reportsChangedFiles() throws IOException, InterruptedException {
+        BlockingQueue<String> invalidated = new LinkedBlockingQueue<>();
+        Path file = Files.write(directory.resolve("file"), "old".getBytes());
+
+        try (FileWatchInvalidator watcher = new FileWatchInvalidator(invalidated::add)) {
+            watcher.watch(file.toString());
+            Files.write(file, "new".getBytes());
+
+            assertEquals(file.toString(), invalidated.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void ignoresUnwatchedFiles() throws IOException, InterruptedException {
+        BlockingQueue<String> invalidated = new LinkedBlockingQueue<>();
+        Path file = Files.write(directory.resolve("file"), "old".getBytes());
+        Path other = Files.write(directory.resolve("other"), "old".getBytes());
+
+        try (FileWatchInvalidator watcher = new FileWatchInvalidator(invalidated::add)) {
+            watcher.watch(file.toString());
+            watcher.watch(other.toString());
+            watcher.unwatch(other.toString());
+            Files.write(other, "new".getBytes());
+            Files.write(file, "new".getBytes());
+
+            assertEquals(file.toString(), invalidated.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            assertNull(invalidated.poll(200, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @Test
+    void keepsWatchingAfterTheCallbackFails() throws IOException, InterruptedException {
+        BlockingQueue<String> invalidated = new LinkedBlockingQueue<>();
+        Path failing = Files.write(directory.resolve("failing"), "old".getBytes());
+        Path file = Files.write(directory.resolve("file"), "old".getBytes());
+
+        try (FileWatchInvalidator watcher = new FileWatchInvalidator(key -> {
+            if (key.equals(failing.toString())) {
+                throw new IllegalStateException("failing callback");
+            }
+            invalidated.add(key);
+        })) {
+            watcher.watch(failing.toString());
+            watcher.watch(file.toString());
+            Files.write(failing, "new".getBytes());
+            Thread.sleep(200); /* let the callback fail first */
+            Files.write(file, "new".getBytes());
+
+            assertEquals(file.toString(), invalidated.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package cachingSystem.classes;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HeapFileContentsTest {
+
+    @Test
+    void handsOutTheUtf8BytesInIndependentReadOnlyBuffers() {
+        HeapFileContents contents = new HeapFileContents("héllo");
+        ByteBuffer first = contents.asByteBuffer();
+        ByteBuffer second = contents.asByteBuffer();
+
+        assertTrue(first.isReadOnly());
+        assertEquals(ByteBuffer.wrap("héllo".getBytes(StandardCharsets.UTF_8)), first);
+        first.get(new byte[3]);
+        assertEquals(0, second.position());
+        assertEquals(0, contents.asByteBuffer().position());
+        assertEquals(6, second.remaining());
+    }
+
+    @Test
+    void weighsTheStringOnceServedThroughAChannel() throws IOException {
+        HeapFileContents contents = new HeapFileContents("hello");
+        long weight = contents.weight();
+
+        assertTrue(contents.retain());
+        try (ContentsChannel channel = new ContentsChannel(contents)) {
+            channel.read(ByteBuffer.allocate(16));
+        }
+
+        assertEquals(weight, contents.weight());
+        assertFalse(contents.holdsBytes());
+    }
+}
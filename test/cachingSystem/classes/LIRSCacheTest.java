@@ -0,0 +1,70 @@
+package cachingSystem.classes;
+
+import org.junit.jupiter.api.Test;
+
+import static cachingSystem.classes.BoundedCaches.access;
+import static cachingSystem.classes.BoundedCaches.withCapacity;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LIRSCacheTest {
+    private static final int CAPACITY = 100;
+
+    /**
+     * A loop one key longer than the cache never hits under LRU; LIRS keeps most of it.
+     */
+    @Test
+    void keepsMostOfALoopLargerThanTheCache() {
+        LIRSCache<Integer, Integer> lirs = withCapacity(new LIRSCache<>(CAPACITY), CAPACITY);
+        LRUCache<Integer, Integer> lru = withCapacity(new LRUCache<>(), CAPACITY);
+        int lirsHits = 0;
+        int lruHits = 0;
+
+        for (int round = 0; round < 20; round++) {
+            for (int key = 0; key <= CAPACITY; key++) {
+                lirsHits += access(lirs, key) ? 1 : 0;
+                lruHits += access(lru, key) ? 1 : 0;
+            }
+        }
+
+        assertEquals(0, lruHits);
+        assertTrue(lirsHits > 15 * CAPACITY, lirsHits + " hits");
+        assertEquals(CAPACITY, lirs.size());
+    }
+
+    @Test
+    void hotKeysSurviveAScan() {
+        LIRSCache<Integer, Integer> cache = withCapacity(new LIRSCache<>(CAPACITY), CAPACITY);
+
+        for (int round = 0; round < 3; round++) {
+            for (int key = 0; key < CAPACITY / 2; key++) {
+                access(cache, key);
+            }
+        }
+        for (int key = 1000; key < 1000 + 10 * CAPACITY; key++) {
+            access(cache, key);
+        }
+
+        for (int key = 0; key < CAPACITY / 2; key++) {
+            assertTrue(cache.containsKey(key), "hot key " + key + " was evicted");
+        }
+    }
+
+    @Test
+    void ghostsAreNotResident() {
+        LIRSCache<Integer, Integer> cache = withCapacity(new LIRSCache<>(CAPACITY), CAPACITY);
+
+        for (int key = 0; key < 2 * CAPACITY; key++) {
+            access(cache, key);
+        }
+
+        assertEquals(CAPACITY, cache.size());
+        for (int key = 0; key < 2 * CAPACITY; key++) {
+            if (!cache.containsKey(key)) {
+                assertNull(cache.remove(key));
+            }
+        }
+        assertEquals(CAPACITY, cache.size());
+    }
+}
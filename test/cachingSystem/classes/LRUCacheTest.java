@@ -0,0 +1,91 @@
+package cachingSystem.classes;
+
+import observerPattern.classes.StatsListener;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static cachingSystem.classes.BoundedCaches.withCapacity;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LRUCacheTest {
+
+    @Test
+    void removesPresentKeys() {
+        LRUCache<String, String> cache = new LRUCache<>();
+        List<String> removed = new ArrayList<>();
+        cache.setCacheListener(new StatsListener<String, String>() {
+            @Override
+            public void onRemove(String key, String value) {
+                removed.add(key + "=" + value);
+            }
+        });
+        cache.put("a", "1");
+
+        assertEquals("1", cache.remove("a"));
+        assertTrue(cache.isEmpty());
+        assertEquals(1, removed.size());
+        assertEquals("a=1", removed.get(0));
+    }
+
+    @Test
+    void removingMissingKeysReturnsNull() {
+        LRUCache<String, String> cache = new LRUCache<>();
+        cache.put("a", "1");
+
+        assertNull(cache.remove("b"));
+        assertNull(cache.remove(null));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void getAllReturnsTheFoundValuesInTheOrderOfTheKeys() {
+        LRUCache<String, String> cache = new LRUCache<>();
+        StatsListener<String, String> stats = new StatsListener<>();
+        cache.setCacheListener(stats);
+        cache.put("a", "1");
+        cache.put("b", "2");
+
+        Map<String, String> values = cache.getAll(Arrays.asList("b", "missing", "a"));
+
+        assertEquals(Arrays.asList("b", "a"), new ArrayList<>(values.keySet()));
+        assertEquals(2, stats.getHits());
+        assertEquals(1, stats.getMisses());
+    }
+
+    @Test
+    void getAllMarksTheFoundKeysAsRecentlyUsed() {
+        LRUCache<String, String> cache = withCapacity(new LRUCache<>(), 2);
+        cache.put("a", "1");
+        cache.put("b", "2");
+
+        cache.getAll(Arrays.asList("a"));
+        cache.put("c", "3");
+
+        assertTrue(cache.containsKey("a"));
+        assertFalse(cache.containsKey("b"));
+    }
+
+    @Test
+    void putAllKeepsTheLatestEntriesOfABatch() {
+        LRUCache<String, String> cache = withCapacity(new LRUCache<>(), 2);
+        Map<String, String> batch = new LinkedHashMap<>();
+        batch.put("a", "1");
+        batch.put("b", "2");
+        batch.put("c", "3");
+        batch.put("d", "4");
+
+        cache.putAll(batch);
+
+        assertEquals(2, cache.size());
+        assertTrue(cache.containsKey("c"));
+        assertTrue(cache.containsKey("d"));
+    }
+}
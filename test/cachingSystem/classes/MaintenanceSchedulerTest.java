@@ -0,0 +1,111 @@
+package cachingSystem.classes;
+
+import observerPattern.classes.StatsListener;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static cachingSystem.classes.BoundedCaches.withCapacity;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MaintenanceSchedulerTest {
+
+    @Test
+    void evictsOnTheMaintenanceThread() throws InterruptedException {
+        LRUCache<Integer, Integer> cache = withCapacity(new LRUCache<>(), 10);
+        List<Thread> evictingThreads = recordEvictingThreads(cache);
+
+        try (MaintenanceScheduler scheduler = new MaintenanceScheduler()) {
+            cache.setMaintenanceScheduler(scheduler);
+            for (int key = 0; key < 20; key++) {
+                synchronized (cache) {
+                    cache.put(key, key);
+                }
+            }
+
+            awaitTrue(() -> {
+                synchronized (cache) {
+                    return cache.size() == 10;
+                }
+            });
+        }
+        assertEquals(10, evictingThreads.size());
+        for (Thread thread : evictingThreads) {
+            assertEquals("cache-maintenance", thread.getName());
+        }
+    }
+
+    @Test
+    void expiresEntriesWithoutTraffic() throws InterruptedException {
+        TimeAwareCache<String, String> cache = new TimeAwareCache<>();
+        cache.setExpirePolicy(20);
+
+        try (MaintenanceScheduler scheduler = new MaintenanceScheduler(10)) {
+            cache.setMaintenanceScheduler(scheduler);
+            synchronized (cache) {
+                cache.put("a", "1");
+            }
+
+            awaitTrue(() -> {
+                synchronized (cache) {
+                    return cache.isEmpty();
+                }
+            });
+        }
+    }
+
+    @Test
+    void maintainsOnTheCallerThreadOnceClosed() {
+        LRUCache<Integer, Integer> cache = withCapacity(new LRUCache<>(), 1);
+        List<Thread> evictingThreads = recordEvictingThreads(cache);
+        MaintenanceScheduler scheduler = new MaintenanceScheduler();
+        cache.setMaintenanceScheduler(scheduler);
+        scheduler.close();
+
+        cache.put(1, 1);
+        cache.put(2, 2);
+
+        assertEquals(1, cache.size());
+        assertEquals(1, evictingThreads.size());
+        assertEquals(Thread.currentThread(), evictingThreads.get(0));
+    }
+
+    @Test
+    void maintainsOnTheCallerThreadOnceUnset() {
+        LRUCache<Integer, Integer> cache = withCapacity(new LRUCache<>(), 1);
+
+        try (MaintenanceScheduler scheduler = new MaintenanceScheduler()) {
+            cache.setMaintenanceScheduler(scheduler);
+            cache.setMaintenanceScheduler(null);
+
+            cache.put(1, 1);
+            cache.put(2, 2);
+
+            assertEquals(1, cache.size());
+        }
+    }
+
+    private static List<Thread> recordEvictingThreads(ObservableCache<Integer, Integer> cache) {
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+        cache.setCacheListener(new StatsListener<Integer, Integer>() {
+            @Override
+            public void onEvict(Integer key) {
+                threads.add(Thread.currentThread());
+            }
+        });
+        return threads;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() - deadline < 0, "timed out waiting for maintenance");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package cachingSystem.classes;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NioFileLoaderTest {
+    private static final String CONTENTS = "first line\r\nsecond line, ünïcödé\nno final newline";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsFilesThroughTheChannel() throws IOException {
+        Path file = write("small", CONTENTS);
+
+        assertEquals(CONTENTS, new NioFileLoader().load(file.toString()));
+    }
+
+    @Test
+    void readsFilesThroughAMapping() throws IOException {
+        Path file = write("large", CONTENTS);
+
+        assertEquals(CONTENTS, new NioFileLoader(1).load(file.toString()));
+    }
+
+    @Test
+    void readsEmptyFiles() throws IOException {
+        Path file = write("empty", "");
+
+        assertEquals("", new NioFileLoader().load(file.toString()));
+        assertEquals("", new NioFileLoader(0).load(file.toString()));
+    }
+
+    @Test
+    void failsOnMissingFiles() {
+        String missing = directory.resolve("missing").toString();
+
+        assertThrows(NoSuchFileException.class, () -> new NioFileLoader().load(missing));
+    }
+
+    private Path write(String name, String contents) throws IOException {
+        return Files.write(directory.resolve(name), contents.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,48 @@
+package cachingSystem.classes;
+
+import dataStructures.classes.SlabAllocator;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+class OffHeapContentsStoreTest {
+    private static final int SLAB_SIZE = 4096;
+
+    @Test
+    void keepsContentsOffHeapUntilTheLastReferenceIsReleased() {
+        SlabAllocator allocator = new SlabAllocator(4 * SLAB_SIZE, SLAB_SIZE);
+        OffHeapContentsStore store = new OffHeapContentsStore(allocator);
+        FileContents contents = store.store("héllo");
+
+        assertInstanceOf(OffHeapFileContents.class, contents);
+        assertEquals("héllo", contents.asString());
+        assertEquals(ByteBuffer.wrap("héllo".getBytes(StandardCharsets.UTF_8)),
+                contents.asByteBuffer());
+        assertEquals(6, allocator.getUsedBytes());
+
+        contents.retain(); /* e.g. a reader */
+        contents.release(); /* the cache lets go */
+        assertEquals(6, allocator.getUsedBytes());
+        contents.release();
+        assertEquals(0, allocator.getUsedBytes());
+    }
+
+    @Test
+    void fallsBackToTheHeapWhenContentsDoNotFit() {
+        OffHeapContentsStore store = new OffHeapContentsStore(
+                new SlabAllocator(SLAB_SIZE, SLAB_SIZE));
+        StringBuilder large = new StringBuilder();
+        for (int i = 0; i <= SLAB_SIZE; i++) {
+            large.append('x');
+        }
+
+        FileContents contents = store.store(large.toString());
+
+        assertInstanceOf(HeapFileContents.class, contents);
+        assertEquals(large.toString(), contents.asString());
+    }
+}
@@ -0,0 +1,87 @@
+package cachingSystem.classes;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrefetcherTest {
+
+    @Test
+    void prefetchesASuccessorOnceItIsSeenTwice() {
+        List<String> prefetched = new ArrayList<>();
+        Prefetcher<String, String> prefetcher = new Prefetcher<>(16, 0.5, prefetched::add);
+
+        access(prefetcher, "a", "b", "a");
+        assertTrue(prefetched.isEmpty()); /* a single transition is no pattern yet */
+
+        access(prefetcher, "b", "a");
+        assertEquals(Collections.singletonList("b"), prefetched);
+    }
+
+    @Test
+    void onlyPrefetchesSuccessorsAboveTheConfidence() {
+        List<String> prefetched = new ArrayList<>();
+        Prefetcher<String, String> prefetcher = new Prefetcher<>(16, 0.5, prefetched::add);
+
+        for (int i = 0; i < 10; i++) {
+            access(prefetcher, "a", "usual", "a", "usual", "a", "rare" + i);
+        }
+        prefetched.clear();
+        access(prefetcher, "a");
+
+        assertEquals(Collections.singletonList("usual"), prefetched);
+    }
+
+    @Test
+    void followsAChangingPattern() {
+        List<String> prefetched = new ArrayList<>();
+        Prefetcher<String, String> prefetcher = new Prefetcher<>(16, 0.6, prefetched::add);
+
+        for (int i = 0; i < 100; i++) {
+            access(prefetcher, "a", "old");
+        }
+        for (int i = 0; i < 2000; i++) { /* counts are halved, the old successor fades away */
+            access(prefetcher, "a", "new");
+        }
+        prefetched.clear();
+        access(prefetcher, "a");
+
+        assertEquals(Collections.singletonList("new"), prefetched);
+    }
+
+    @Test
+    void forgetsTheLeastRecentlyAccessedKeys() {
+        List<String> prefetched = new ArrayList<>();
+        Prefetcher<String, String> prefetcher = new Prefetcher<>(1, 0.5, prefetched::add);
+
+        access(prefetcher, "a", "b", "a", "b", "c", "d", "c", "d");
+        prefetched.clear();
+        access(prefetcher, "a");
+
+        assertTrue(prefetched.isEmpty());
+    }
+
+    @Test
+    void ignoresPuts() {
+        List<String> prefetched = new ArrayList<>();
+        Prefetcher<String, String> prefetcher = new Prefetcher<>(16, 0.5, prefetched::add);
+
+        for (String key : Arrays.asList("a", "b", "a", "b", "a")) {
+            prefetcher.onPut(key, "value");
+        }
+
+        assertTrue(prefetched.isEmpty());
+    }
+
+    private static void access(Prefetcher<String, String> prefetcher, String... keys) {
+        for (String key : keys) {
+            prefetcher.onMiss(key);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package cachingSystem.classes;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SegmentStoreTest {
+    /* four records of a two-character key and a 200 character value fit in a segment */
+    private static final int SEGMENT_BYTES = 1024;
+    private static final String VALUE = String.join("", Collections.nCopies(200, "x"));
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsBackTheContentsAndTheirFileMetadata() throws IOException {
+        try (SegmentStore store = new SegmentStore(directory, SEGMENT_BYTES, 2 * SEGMENT_BYTES)) {
+            FileContents contents = new HeapFileContents("héllo");
+            contents.setFileMetadata(1234, 6, System.nanoTime());
+
+            assertTrue(store.put("key", contents));
+            FileContents read = store.get("key");
+
+            assertEquals("héllo", read.asString());
+            assertEquals(1234, read.getLastModified());
+            assertEquals(6, read.getFileSize());
+            assertNull(store.get("missing"));
+        }
+    }
+
+    @Test
+    void keepsOnlyTheLatestContentsOfAKey() throws IOException {
+        try (SegmentStore store = new SegmentStore(directory, SEGMENT_BYTES, 2 * SEGMENT_BYTES)) {
+            store.put("key", new HeapFileContents("old"));
+            store.put("key", new HeapFileContents("new"));
+
+            assertEquals(1, store.size());
+            assertEquals("new", store.get("key").asString());
+            assertTrue(store.remove("key"));
+            assertFalse(store.contains("key"));
+            assertFalse(store.remove("key"));
+        }
+    }
+
+    @Test
+    void refusesContentsLargerThanASegment() throws IOException {
+        try (SegmentStore store = new SegmentStore(directory, SEGMENT_BYTES, 2 * SEGMENT_BYTES)) {
+            String large = String.join("", Collections.nCopies(SEGMENT_BYTES, "x"));
+
+            assertFalse(store.put("key", new HeapFileContents(large)));
+            assertFalse(store.contains("key"));
+        }
+    }
+
+    @Test
+    void compactsAMostlyDeadSegmentInsteadOfDroppingIt() throws IOException {
+        try (SegmentStore store = new SegmentStore(directory, SEGMENT_BYTES, 2 * SEGMENT_BYTES)) {
+            List<String> dropped = recordDrops(store);
+            putAll(store, "k0", "k1", "k2", "k3");
+            store.remove("k0");
+            store.remove("k1");
+            store.remove("k2");
+            putAll(store, "k4", "k5", "k6", "k7");
+
+            putAll(store, "k8"); /* a third segment, the first one only holds k3 */
+
+            assertTrue(dropped.isEmpty());
+            assertEquals(6, store.size());
+            assertEquals(VALUE, store.get("k3").asString());
+            assertEquals(2, countSegmentFiles());
+        }
+    }
+
+    @Test
+    void dropsTheOldestSegmentWhenEverySegmentIsLive() throws IOException {
+        try (SegmentStore store = new SegmentStore(directory, SEGMENT_BYTES, 2 * SEGMENT_BYTES)) {
+            List<String> dropped = recordDrops(store);
+            putAll(store, "k0", "k1", "k2", "k3", "k4", "k5", "k6", "k7");
+            FileContents eldest = store.get("k0");
+
+            putAll(store, "k8");
+
+            assertEquals(Arrays.asList("k0", "k1", "k2", "k3"), dropped);
+            assertFalse(store.contains("k0"));
+            assertEquals(5, store.size());
+            assertEquals(2, countSegmentFiles());
+            assertEquals(VALUE, eldest.asString()); /* the mapping outlives its deleted file */
+        }
+    }
+
+    @Test
+    void deletesItsSegmentFilesWhenClosedAndOnTheNextStart() throws IOException {
+        SegmentStore store = new SegmentStore(directory, SEGMENT_BYTES, 2 * SEGMENT_BYTES);
+        putAll(store, "k0");
+        assertEquals(1, countSegmentFiles());
+
+        new SegmentStore(directory, SEGMENT_BYTES, 2 * SEGMENT_BYTES).close();
+        assertEquals(0, countSegmentFiles());
+
+        putAll(store, "k1", "k2", "k3", "k4"); /* into a new segment */
+        store.close();
+        assertEquals(0, countSegmentFiles());
+    }
+
+    private static void putAll(SegmentStore store, String... keys) throws IOException {
+        for (String key : keys) {
+            assertTrue(store.put(key, new HeapFileContents(VALUE)));
+        }
+    }
+
+    private static List<String> recordDrops(SegmentStore store) {
+        List<String> dropped = new ArrayList<>();
+        store.setDropListener((key, contents) -> dropped.add(key));
+        return dropped;
+    }
+
+    private long countSegmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}
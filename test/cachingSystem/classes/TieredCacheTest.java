@@ -0,0 +1,96 @@
+package cachingSystem.classes;
+
+import observerPattern.classes.StatsListener;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static cachingSystem.classes.BoundedCaches.withCapacity;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TieredCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void spillsEvictedEntriesToDiskAndPromotesThemBack() throws IOException {
+        try (TieredCache cache = createCache(2)) {
+            StatsListener<String, FileContents> stats = new StatsListener<>();
+            cache.setCacheListener(stats);
+            put(cache, "a", "b", "c");
+
+            assertEquals(2, cache.size());
+            assertEquals(1, cache.diskSize());
+            assertTrue(cache.containsKey("a"));
+
+            assertEquals("contents of a", cache.get("a").asString()); /* b goes to disk */
+            assertEquals(2, cache.size());
+            assertEquals(1, cache.diskSize());
+            assertEquals("contents of b", cache.get("b").asString());
+            assertEquals(2, stats.getHits());
+            assertEquals(0, stats.getMisses());
+        }
+    }
+
+    @Test
+    void newerContentsReplaceTheOnesOnDisk() throws IOException {
+        try (TieredCache cache = createCache(1)) {
+            put(cache, "a", "b");
+            cache.put("a", new HeapFileContents("newer"));
+
+            assertEquals("newer", cache.get("a").asString());
+        }
+    }
+
+    @Test
+    void removesEntriesFromEitherTier() throws IOException {
+        try (TieredCache cache = createCache(1)) {
+            List<String> removed = new ArrayList<>();
+            cache.setCacheListener(new StatsListener<String, FileContents>() {
+                @Override
+                public void onRemove(String key, FileContents value) {
+                    removed.add(key);
+                }
+            });
+            put(cache, "a", "b");
+            removed.clear();
+
+            assertEquals("contents of a", cache.remove("a").asString());
+            assertEquals("contents of b", cache.remove("b").asString());
+            assertNull(cache.remove("c"));
+            assertEquals(0, cache.diskSize());
+            assertTrue(cache.isEmpty());
+            assertEquals(2, removed.size());
+        }
+    }
+
+    @Test
+    void reportsAMissOnlyWhenBothTiersMiss() throws IOException {
+        try (TieredCache cache = createCache(1)) {
+            StatsListener<String, FileContents> stats = new StatsListener<>();
+            cache.setCacheListener(stats);
+
+            assertNull(cache.get("a"));
+            assertEquals(1, stats.getMisses());
+            assertEquals(Collections.emptyMap(), cache.getAll(Collections.singletonList("a")));
+        }
+    }
+
+    private TieredCache createCache(int capacity) throws IOException {
+        return withCapacity(new TieredCache(new SegmentStore(directory, 4096, 8192)), capacity);
+    }
+
+    private static void put(TieredCache cache, String... keys) {
+        for (String key : keys) {
+            cache.put(key, new HeapFileContents("contents of " + key));
+        }
+    }
+}
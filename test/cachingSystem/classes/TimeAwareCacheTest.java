@@ -0,0 +1,72 @@
+package cachingSystem.classes;
+
+import observerPattern.classes.StatsListener;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeAwareCacheTest {
+
+    @Test
+    void expiresEveryDueEntryNotOnlyTheEldest() throws InterruptedException {
+        TimeAwareCache<String, String> cache = new TimeAwareCache<>();
+        List<String> evicted = new ArrayList<>();
+        cache.setCacheListener(new StatsListener<String, String>() {
+            @Override
+            public void onEvict(String key) {
+                evicted.add(key);
+            }
+        });
+        cache.setExpirePolicy(50);
+
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.put("c", "3");
+        Thread.sleep(150);
+        cache.put("d", "4");
+
+        assertEquals(1, cache.size());
+        assertEquals(3, evicted.size());
+        assertEquals("4", cache.get("d"));
+    }
+
+    @Test
+    void dueEntriesAreGoneBeforeTheWheelTurns() throws InterruptedException {
+        TimeAwareCache<String, String> cache = new TimeAwareCache<>();
+        cache.setExpirePolicy(20);
+        cache.put("a", "1");
+
+        Thread.sleep(40);
+
+        assertFalse(cache.containsKey("a"));
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    void setsTheExpirationOfEntriesAlreadyCached() throws InterruptedException {
+        TimeAwareCache<String, String> cache = new TimeAwareCache<>();
+        cache.put("a", "1");
+        cache.setExpirePolicy(20);
+
+        Thread.sleep(40);
+
+        assertNull(cache.get("a"));
+        assertTrue(cache.isEmpty());
+    }
+
+    @Test
+    void keepsEntriesWithoutAnExpirePolicy() throws InterruptedException {
+        TimeAwareCache<String, String> cache = new TimeAwareCache<>();
+        cache.put("a", "1");
+
+        Thread.sleep(20);
+
+        assertEquals("1", cache.get("a"));
+    }
+}
@@ -0,0 +1,88 @@
+package cachingSystem.classes;
+
+import cachingSystem.interfaces.CacheStalePolicy;
+import dataStructures.classes.Pair;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static cachingSystem.classes.BoundedCaches.access;
+import static cachingSystem.classes.BoundedCaches.withCapacity;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TinyLFUCacheTest {
+    private static final int CAPACITY = 100;
+    private static final int HOT_KEYS = 20;
+
+    @Test
+    void frequentKeysSurviveAScan() {
+        TinyLFUCache<Integer, Integer> cache = withCapacity(new TinyLFUCache<>(CAPACITY), CAPACITY);
+
+        for (int round = 0; round < 10; round++) {
+            for (int key = 0; key < HOT_KEYS; key++) {
+                access(cache, key);
+            }
+        }
+        for (int key = 1000; key < 1000 + 5 * CAPACITY; key++) { /* one-off keys */
+            access(cache, key);
+        }
+
+        assertEquals(CAPACITY, cache.size());
+        for (int key = 0; key < HOT_KEYS; key++) {
+            assertTrue(cache.containsKey(key), "hot key " + key + " was evicted");
+        }
+    }
+
+    @Test
+    void newKeysStillGetInOnceTheyArePopular() {
+        TinyLFUCache<Integer, Integer> cache = withCapacity(new TinyLFUCache<>(CAPACITY), CAPACITY);
+
+        for (int key = 0; key < 2 * CAPACITY; key++) {
+            access(cache, key);
+        }
+        for (int round = 0; round < 10; round++) {
+            access(cache, -1);
+        }
+
+        assertTrue(cache.containsKey(-1));
+        assertEquals(CAPACITY, cache.size());
+    }
+
+    /**
+     * The entry compared with the victim used to be the newest one in probation, which is the
+     * protected entry just demoted there rather than the entry admitted from the window; a popular
+     * victim then lost to it, and the one-off newcomer was kept without a duel.
+     */
+    @Test
+    void comparesTheVictimWithTheEntryAdmittedFromTheWindow() {
+        TinyLFUCache<String, String> cache = new TinyLFUCache<>(3); /* window 1, protected 1 */
+        AtomicInteger limit = new AtomicInteger(Integer.MAX_VALUE);
+        cache.setStalePolicy(new CacheStalePolicy<String, String>() {
+            @Override
+            public boolean shouldRemoveEldestEntry(Pair<String, String> entry) {
+                return cache.size() > limit.get();
+            }
+        });
+        accessTimes(cache, "frequent", 4);
+        accessTimes(cache, "demoted", 6); /* frequent goes to probation, the victim */
+        access(cache, "promoted"); /* demoted goes to probation */
+        access(cache, "demoted"); /* and gets protected */
+        access(cache, "newcomer"); /* promoted goes to probation */
+        access(cache, "last"); /* newcomer goes to probation, the candidate */
+        access(cache, "promoted"); /* protected, demoted is demoted to probation */
+
+        limit.set(cache.size() - 1);
+        cache.clearStaleEntries();
+
+        assertTrue(cache.containsKey("frequent"));
+        assertFalse(cache.containsKey("newcomer"));
+    }
+
+    private static void accessTimes(TinyLFUCache<String, String> cache, String key, int times) {
+        for (int i = 0; i < times; i++) {
+            access(cache, key);
+        }
+    }
+}
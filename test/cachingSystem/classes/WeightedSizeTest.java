@@ -0,0 +1,94 @@
+package cachingSystem.classes;
+
+import cachingSystem.interfaces.CacheStalePolicy;
+import dataStructures.classes.Pair;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WeightedSizeTest {
+
+    static List<Supplier<ObservableCache<String, String>>> caches() {
+        return Arrays.asList(
+                named("FIFO", ObservableFIFOCache::new),
+                named("LRU", LRUCache::new),
+                named("CONCURRENT_LRU", ConcurrentLRUCache::new),
+                named("TINYLFU", () -> new TinyLFUCache<>(16)),
+                named("ARC", () -> new ARCCache<>(16)),
+                named("LIRS", () -> new LIRSCache<>(16)),
+                named("CLOCK", () -> new ClockCache<>(16)),
+                named("TIME", TimeAwareCache::new));
+    }
+
+    @ParameterizedTest
+    @MethodSource("caches")
+    void tracksPutsReplacementsAndRemovals(Supplier<ObservableCache<String, String>> factory) {
+        ObservableCache<String, String> cache = factory.get();
+        cache.setWeigher((key, value) -> value.length());
+
+        cache.put("a", "aaa");
+        cache.put("b", "bbbbb");
+        assertEquals(8, cache.weightedSize());
+
+        cache.put("a", "a");
+        assertEquals(6, cache.weightedSize());
+
+        cache.remove("b");
+        cache.remove("missing");
+        assertEquals(1, cache.weightedSize());
+
+        cache.clearAll();
+        assertEquals(0, cache.weightedSize());
+    }
+
+    @ParameterizedTest
+    @MethodSource("caches")
+    void evictsUntilTheBudgetIsMet(Supplier<ObservableCache<String, String>> factory) {
+        ObservableCache<String, String> cache = factory.get();
+        cache.setWeigher((key, value) -> value.length());
+        cache.setStalePolicy(new CacheStalePolicy<String, String>() {
+            @Override
+            public boolean shouldRemoveEldestEntry(Pair<String, String> entry) {
+                return cache.weightedSize() > 10;
+            }
+        });
+
+        for (int i = 0; i < 20; i++) {
+            cache.put("key" + i, "value" + i % 10); /* 6 units each */
+        }
+        cache.put("large", "0123456789");
+
+        assertTrue(cache.weightedSize() <= 10, "weighted size " + cache.weightedSize());
+        long expected = 0;
+        for (int i = 0; i < 20; i++) {
+            if (cache.containsKey("key" + i)) {
+                expected += 6;
+            }
+        }
+        if (cache.containsKey("large")) {
+            expected += 10;
+        }
+        assertEquals(expected, cache.weightedSize());
+    }
+
+    private static Supplier<ObservableCache<String, String>> named(
+            String name, Supplier<ObservableCache<String, String>> factory) {
+        return new Supplier<ObservableCache<String, String>>() {
+            @Override
+            public ObservableCache<String, String> get() {
+                return factory.get();
+            }
+
+            @Override
+            public String toString() {
+                return name;
+            }
+        };
+    }
+}
@@ -0,0 +1,57 @@
+package dataStructures.classes;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FrequencySketchTest {
+
+    @Test
+    void countsUpToFifteen() {
+        FrequencySketch<String> sketch = new FrequencySketch<>(1000);
+
+        assertEquals(0, sketch.frequency("key"));
+        for (int i = 0; i < 5; i++) {
+            sketch.increment("key");
+        }
+        assertEquals(5, sketch.frequency("key"));
+        for (int i = 0; i < 20; i++) {
+            sketch.increment("key");
+        }
+        assertEquals(15, sketch.frequency("key"));
+    }
+
+    @Test
+    void neverUnderestimatesAndRarelyConfusesKeys() {
+        FrequencySketch<Integer> sketch = new FrequencySketch<>(1000);
+
+        for (int key = 0; key < 100; key++) {
+            for (int i = 0; i < key % 10; i++) {
+                sketch.increment(key);
+            }
+        }
+        int exact = 0;
+        for (int key = 0; key < 100; key++) {
+            assertTrue(sketch.frequency(key) >= key % 10);
+            if (sketch.frequency(key) == key % 10) {
+                exact++;
+            }
+        }
+        assertTrue(exact >= 95, exact + " exact estimates");
+    }
+
+    @Test
+    void halvesCountsOnceTheSampleIsFull() {
+        FrequencySketch<Integer> sketch = new FrequencySketch<>(1000);
+
+        for (int i = 0; i < 8; i++) {
+            sketch.increment(-1);
+        }
+        for (int key = 0; key < 10_000; key++) { /* ten times the expected size, then aging */
+            sketch.increment(key);
+        }
+
+        assertTrue(sketch.frequency(-1) < 8, "frequency " + sketch.frequency(-1));
+    }
+}
@@ -0,0 +1,65 @@
+package dataStructures.classes;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlabAllocatorTest {
+    private static final int SLAB_SIZE = 4096;
+
+    @Test
+    void writesAndViewsChunks() {
+        SlabAllocator allocator = new SlabAllocator(4 * SLAB_SIZE, SLAB_SIZE);
+        long first = allocator.allocate(3);
+        long second = allocator.allocate(3);
+
+        allocator.write(first, new byte[] {1, 2, 3});
+        allocator.write(second, new byte[] {4, 5, 6});
+
+        assertEquals(ByteBuffer.wrap(new byte[] {1, 2, 3}), allocator.view(first, 3));
+        assertEquals(ByteBuffer.wrap(new byte[] {4, 5, 6}), allocator.view(second, 3));
+        assertTrue(allocator.view(first, 3).isReadOnly());
+        assertEquals(6, allocator.getUsedBytes());
+        assertEquals(SLAB_SIZE, allocator.getReservedBytes());
+    }
+
+    @Test
+    void tracksAllocatedAndUsedBytes() {
+        SlabAllocator allocator = new SlabAllocator(4 * SLAB_SIZE, SLAB_SIZE);
+        long handle = allocator.allocate(100);
+
+        assertEquals(100, allocator.getUsedBytes());
+        assertTrue(allocator.getAllocatedBytes() >= 100);
+        assertTrue(allocator.getAllocatedBytes() <= 125 + 8); /* one size class of slack */
+
+        allocator.free(handle, 100);
+        assertEquals(0, allocator.getUsedBytes());
+        assertEquals(0, allocator.getAllocatedBytes());
+    }
+
+    @Test
+    void runsOutOfMemoryAndReusesFreedSlabs() {
+        SlabAllocator allocator = new SlabAllocator(2 * SLAB_SIZE, SLAB_SIZE);
+        long first = allocator.allocate(SLAB_SIZE);
+        long second = allocator.allocate(SLAB_SIZE);
+
+        assertNotEquals(SlabAllocator.NO_MEMORY, first);
+        assertNotEquals(SlabAllocator.NO_MEMORY, second);
+        assertEquals(SlabAllocator.NO_MEMORY, allocator.allocate(64));
+
+        allocator.free(first, SLAB_SIZE); /* the emptied slab can serve another size class */
+        assertNotEquals(SlabAllocator.NO_MEMORY, allocator.allocate(64));
+    }
+
+    @Test
+    void refusesAllocationsLargerThanASlab() {
+        SlabAllocator allocator = new SlabAllocator(4 * SLAB_SIZE, SLAB_SIZE);
+
+        assertEquals(SlabAllocator.NO_MEMORY, allocator.allocate(SLAB_SIZE + 1));
+        assertEquals(0, allocator.getReservedBytes());
+    }
+}
@@ -0,0 +1,72 @@
+package dataStructures.classes;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpaceSavingTest {
+
+    @Test
+    void countsExactlyWhileEveryElementHasACounter() {
+        SpaceSaving<String> summary = new SpaceSaving<>(3);
+
+        for (String element : "a b a c a b".split(" ")) {
+            summary.offer(element);
+        }
+
+        assertEquals(3, summary.estimate("a"));
+        assertEquals(2, summary.estimate("b"));
+        assertEquals(1, summary.estimate("c"));
+        assertEquals(0, summary.error("a"));
+        assertEquals(0, summary.estimate("d"));
+        assertEquals(Arrays.asList("a", "b", "c"), summary.top(5));
+    }
+
+    @Test
+    void boundsTheErrorOfASkewedStream() {
+        SpaceSaving<Integer> summary = new SpaceSaving<>(50);
+        Map<Integer, Long> counts = new HashMap<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 100000; i++) {
+            int element = (int) Math.pow(10000, random.nextDouble()); /* a few hot elements */
+            summary.offer(element);
+            counts.merge(element, 1L, Long::sum);
+        }
+
+        assertEquals(100000 / 50, summary.getMaxError());
+        for (Map.Entry<Integer, Long> count : counts.entrySet()) {
+            long estimate = summary.estimate(count.getKey());
+            if (estimate != 0) {
+                assertTrue(estimate >= count.getValue());
+                assertTrue(estimate - count.getValue() <= summary.error(count.getKey()));
+                assertTrue(summary.error(count.getKey()) <= summary.getMaxError());
+            } else {
+                assertTrue(count.getValue() <= summary.getMaxError(), "a frequent element is lost");
+            }
+        }
+        assertEquals(Arrays.asList(1, 2, 3), summary.top(3));
+    }
+
+    @Test
+    void listsTheTopElementsByDecreasingCount() {
+        SpaceSaving<String> summary = new SpaceSaving<>(10);
+
+        for (int i = 0; i < 5; i++) {
+            summary.offer("five");
+        }
+        summary.offer("one");
+        for (int i = 0; i < 3; i++) {
+            summary.offer("three");
+        }
+
+        assertEquals(Arrays.asList("five", "three"), summary.top(2));
+        assertTrue(summary.top(0).isEmpty());
+    }
+}
@@ -0,0 +1,112 @@
+package dataStructures.classes;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimerWheelTest {
+    /* the span of a bucket of the finest level */
+    private static final long TICK = 1L << 24;
+
+    @Test
+    void expiresNodesNeverEarlyAndAtMostATickLate() {
+        long origin = 1000;
+        long step = TimeUnit.MILLISECONDS.toNanos(4);
+        TimerWheel<Long> wheel = new TimerWheel<>(origin);
+        Random random = new Random(42);
+        Map<TimeAwareNode<Long>, Long> firedAt = new HashMap<>();
+
+        for (int i = 0; i < 1000; i++) {
+            long deadline = origin + (long) (random.nextDouble() * TimeUnit.MINUTES.toNanos(10));
+            wheel.schedule(new TimeAwareNode<>(deadline), deadline);
+        }
+        for (long now = origin; now <= origin + TimeUnit.MINUTES.toNanos(11); now += step) {
+            long time = now;
+            wheel.advance(time, node -> firedAt.put(node, time));
+        }
+
+        assertEquals(1000, firedAt.size());
+        for (Map.Entry<TimeAwareNode<Long>, Long> fired : firedAt.entrySet()) {
+            long lateness = fired.getValue() - fired.getKey().getData();
+            assertTrue(lateness >= 0, "expired early");
+            assertTrue(lateness <= TICK + step, "expired " + lateness + " ns late");
+        }
+    }
+
+    @Test
+    void descheduledNodesDoNotExpire() {
+        TimerWheel<String> wheel = new TimerWheel<>(0);
+        TimeAwareNode<String> kept = new TimeAwareNode<>("kept");
+        TimeAwareNode<String> cancelled = new TimeAwareNode<>("cancelled");
+        List<String> expired = new ArrayList<>();
+
+        wheel.schedule(kept, TimeUnit.MILLISECONDS.toNanos(100));
+        wheel.schedule(cancelled, TimeUnit.MILLISECONDS.toNanos(100));
+        wheel.deschedule(cancelled);
+        wheel.deschedule(cancelled); /* a no-op once it is off the wheel */
+        wheel.advance(TimeUnit.SECONDS.toNanos(1), node -> expired.add(node.getData()));
+
+        assertEquals(1, expired.size());
+        assertEquals("kept", expired.get(0));
+    }
+
+    @Test
+    void reschedulingMovesTheDeadline() {
+        TimerWheel<String> wheel = new TimerWheel<>(0);
+        TimeAwareNode<String> node = new TimeAwareNode<>("node");
+        List<String> expired = new ArrayList<>();
+
+        wheel.schedule(node, TimeUnit.MILLISECONDS.toNanos(100));
+        wheel.schedule(node, TimeUnit.SECONDS.toNanos(10));
+        wheel.advance(TimeUnit.SECONDS.toNanos(1), expiredNode -> expired.add(expiredNode.getData()));
+        assertTrue(expired.isEmpty());
+
+        wheel.advance(TimeUnit.SECONDS.toNanos(11), expiredNode -> expired.add(expiredNode.getData()));
+        assertEquals(1, expired.size());
+    }
+
+    @Test
+    void oneLargeAdvanceExpiresEveryLevel() {
+        TimerWheel<Long> wheel = new TimerWheel<>(0);
+        long[] delays = {
+            TimeUnit.MILLISECONDS.toNanos(1),
+            TimeUnit.SECONDS.toNanos(1),
+            TimeUnit.MINUTES.toNanos(1),
+            TimeUnit.HOURS.toNanos(1),
+            TimeUnit.DAYS.toNanos(4) /* past the last ring, in the overflow bucket */
+        };
+        List<Long> expired = new ArrayList<>();
+
+        for (long delay : delays) {
+            wheel.schedule(new TimeAwareNode<>(delay), delay);
+        }
+        wheel.advance(TimeUnit.DAYS.toNanos(3), node -> expired.add(node.getData()));
+        assertEquals(delays.length - 1, expired.size());
+
+        wheel.advance(TimeUnit.DAYS.toNanos(5), node -> expired.add(node.getData()));
+        assertEquals(delays.length, expired.size());
+    }
+
+    @Test
+    void handlesTheNanoTimeWrappingAround() {
+        long origin = Long.MAX_VALUE - TimeUnit.MILLISECONDS.toNanos(50);
+        long deadline = origin + TimeUnit.MILLISECONDS.toNanos(100); /* negative */
+        TimerWheel<String> wheel = new TimerWheel<>(origin);
+        List<String> expired = new ArrayList<>();
+
+        wheel.schedule(new TimeAwareNode<>("node"), deadline);
+        wheel.advance(origin + TimeUnit.MILLISECONDS.toNanos(80), node -> expired.add(node.getData()));
+        assertTrue(expired.isEmpty());
+
+        wheel.advance(deadline + TICK, node -> expired.add(node.getData()));
+        assertEquals(1, expired.size());
+    }
+}
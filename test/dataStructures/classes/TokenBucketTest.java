@@ -0,0 +1,38 @@
+package dataStructures.classes;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    @Test
+    void letsABurstThroughThenRefuses() {
+        TokenBucket bucket = new TokenBucket(1000);
+
+        assertTrue(bucket.tryAcquire(600));
+        assertTrue(bucket.tryAcquire(300));
+        assertFalse(bucket.tryAcquire(500));
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1000);
+        assertTrue(bucket.tryAcquire(1000));
+        assertFalse(bucket.tryAcquire(500));
+
+        Thread.sleep(600);
+
+        assertTrue(bucket.tryAcquire(500));
+    }
+
+    @Test
+    void letsAnOversizedCostThroughOnlyWhenFull() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1000);
+
+        assertTrue(bucket.tryAcquire(3000));
+        Thread.sleep(1100); /* a second refills 1000 tokens, the excess is still owed */
+        assertFalse(bucket.tryAcquire(1));
+    }
+}
@@ -0,0 +1,194 @@
+package observerPattern.classes;
+
+import observerPattern.interfaces.CacheListener;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncBroadcastListenerTest {
+    private static final int PRODUCERS = 4;
+    private static final int EVENTS_PER_PRODUCER = 100;
+
+    @Test
+    void dispatchesEventsInOrderOnAnotherThread() {
+        RecordingListener recorder = new RecordingListener();
+        AsyncBroadcastListener<String, String> listener =
+                new AsyncBroadcastListener<>(16, AsyncBroadcastListener.OverflowPolicy.BLOCK);
+        listener.addListener(recorder);
+
+        for (int i = 0; i < 1000; i++) {
+            listener.onHit("key" + i);
+        }
+        listener.close();
+
+        assertEquals(1000, recorder.events.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("hit key" + i, recorder.events.get(i));
+        }
+        assertTrue(recorder.threads.stream().noneMatch(Thread.currentThread()::equals));
+    }
+
+    @Test
+    void wakesTheIdleDispatcherUp() throws InterruptedException {
+        CountDownLatch delivered = new CountDownLatch(1);
+        AsyncBroadcastListener<String, String> listener =
+                new AsyncBroadcastListener<>(16, AsyncBroadcastListener.OverflowPolicy.DROP);
+        listener.addListener(new RecordingListener() {
+            @Override
+            public void onMiss(String key) {
+                delivered.countDown();
+            }
+        });
+
+        Thread.sleep(50); /* let the dispatcher park */
+        listener.onMiss("key");
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        listener.close();
+    }
+
+    @Test
+    void dropsEventsWhileTheRingIsFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingListener recorder = new RecordingListener() {
+            @Override
+            public void onHit(String key) {
+                awaitQuietly(release);
+                super.onHit(key);
+            }
+        };
+        AsyncBroadcastListener<String, String> listener =
+                new AsyncBroadcastListener<>(4, AsyncBroadcastListener.OverflowPolicy.DROP);
+        listener.addListener(recorder);
+
+        for (int i = 0; i < 100; i++) {
+            listener.onHit("key" + i);
+        }
+        release.countDown();
+        listener.close();
+
+        assertTrue(listener.getDroppedEvents() > 0);
+        assertEquals(100, recorder.events.size() + listener.getDroppedEvents());
+    }
+
+    @Test
+    void producerHoldingTheListenerLockDispatchesItselfWhenTheRingIsFull()
+            throws InterruptedException {
+        Object lock = new Object();
+        RecordingListener recorder = new RecordingListener() {
+            @Override
+            public void onHit(String key) {
+                synchronized (lock) { /* like a listener calling back into the cache */
+                    super.onHit(key);
+                }
+            }
+        };
+        AsyncBroadcastListener<String, String> listener =
+                new AsyncBroadcastListener<>(2, AsyncBroadcastListener.OverflowPolicy.BLOCK);
+        listener.setHoldsListenerLock(() -> Thread.holdsLock(lock));
+        listener.addListener(recorder);
+
+        Thread producer = new Thread(() -> {
+            synchronized (lock) {
+                for (int i = 0; i < 100; i++) {
+                    listener.onHit("key" + i);
+                }
+            }
+        });
+        producer.setDaemon(true);
+        producer.start();
+        producer.join(TimeUnit.SECONDS.toMillis(10));
+
+        assertTrue(!producer.isAlive(), "the producer is stuck on the full ring");
+        listener.close();
+        assertEquals(100, recorder.events.size());
+    }
+
+    @Test
+    void dispatchesOnTheCallerThreadOnceClosed() {
+        RecordingListener recorder = new RecordingListener();
+        AsyncBroadcastListener<String, String> listener =
+                new AsyncBroadcastListener<>(16, AsyncBroadcastListener.OverflowPolicy.BLOCK);
+        listener.addListener(recorder);
+        listener.close();
+
+        listener.onPut("key", "value");
+
+        assertEquals(Collections.singletonList("put key"), recorder.events);
+        assertEquals(Collections.singletonList(Thread.currentThread()), recorder.threads);
+    }
+
+    /**
+     * A producer that checked closed just before close() could publish after the dispatcher had
+     * exited, and its event was never dispatched.
+     */
+    @Test
+    void dispatchesEventsPublishedWhileClosing() throws InterruptedException {
+        for (int round = 0; round < 200; round++) {
+            RecordingListener recorder = new RecordingListener();
+            AsyncBroadcastListener<String, String> listener =
+                    new AsyncBroadcastListener<>(64, AsyncBroadcastListener.OverflowPolicy.BLOCK);
+            listener.addListener(recorder);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> producers = new ArrayList<>();
+
+            for (int i = 0; i < PRODUCERS; i++) {
+                Thread producer = new Thread(() -> {
+                    awaitQuietly(start);
+                    for (int j = 0; j < EVENTS_PER_PRODUCER; j++) {
+                        listener.onHit("key" + j);
+                    }
+                });
+                producer.start();
+                producers.add(producer);
+            }
+            start.countDown();
+            listener.close();
+            for (Thread producer : producers) {
+                producer.join();
+            }
+
+            assertEquals(PRODUCERS * EVENTS_PER_PRODUCER, recorder.events.size());
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class RecordingListener implements CacheListener<String, String> {
+        final List<String> events = Collections.synchronizedList(new ArrayList<>());
+        final List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void onHit(String key) {
+            record("hit " + key);
+        }
+
+        @Override
+        public void onMiss(String key) {
+            record("miss " + key);
+        }
+
+        @Override
+        public void onPut(String key, String value) {
+            record("put " + key);
+        }
+
+        private void record(String event) {
+            events.add(event);
+            threads.add(Thread.currentThread());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package observerPattern.classes;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeyStatsListenerTest {
+
+    @Test
+    void boundedListenerFindsTheHotKeysAmongManyColdOnes() {
+        KeyStatsListener<String, String> stats = new KeyStatsListener<>(16);
+
+        for (int i = 0; i < 10000; i++) {
+            stats.onHit("cold" + i);
+            if (i % 2 == 0) {
+                stats.onHit("hot");
+            }
+            if (i % 4 == 0) {
+                stats.onHit("warm");
+            }
+        }
+
+        assertEquals(Arrays.asList("hot", "warm"), stats.getTopHitKeys(2));
+        assertTrue(stats.getKeyHits("hot") >= 5000);
+        assertTrue(stats.getKeyHits("hot") <= 5000 + 17500 / 16);
+    }
+
+    @Test
+    void boundedListenerKeepsEveryKindOfEventApart() {
+        KeyStatsListener<String, String> stats = new KeyStatsListener<>(4);
+
+        stats.onHit("a");
+        stats.onMiss("b");
+        stats.onMiss("b");
+        stats.onPut("c", "value");
+
+        assertEquals(1, stats.getKeyHits("a"));
+        assertEquals(0, stats.getKeyHits("b"));
+        assertEquals(2, stats.getKeyMisses("b"));
+        assertEquals(1, stats.getKeyUpdates("c"));
+        assertEquals(Arrays.asList("b"), stats.getTopMissedKeys(3));
+        assertEquals(Arrays.asList("c"), stats.getTopUpdatedKeys(3));
+    }
+
+    @Test
+    void unboundedListenerCountsExactly() {
+        KeyStatsListener<String, String> stats = new KeyStatsListener<>();
+
+        for (int i = 0; i < 1000; i++) {
+            stats.onHit("key" + i);
+        }
+        stats.onHit("key7");
+
+        assertEquals(2, stats.getKeyHits("key7"));
+        assertEquals(1, stats.getKeyHits("key8"));
+        assertEquals(Arrays.asList("key7"), stats.getTopHitKeys(1));
+    }
+}
@@ -0,0 +1,78 @@
+package observerPattern.classes;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StatsListenerTest {
+    private static final int THREADS = 8;
+    private static final int EVENTS = 10000;
+
+    @Test
+    void countsEveryEventFromConcurrentThreads() throws InterruptedException {
+        StatsListener<String, String> stats = new StatsListener<>();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int i = 0; i < THREADS; i++) {
+            Thread thread = new Thread(() -> {
+                for (int event = 0; event < EVENTS; event++) {
+                    stats.onHit("key");
+                    stats.onMiss("key");
+                    stats.onPut("key", "value");
+                    stats.onEvict("key");
+                    stats.onLoad("key", 10);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        CacheStats snapshot = stats.snapshot();
+        long expected = (long) THREADS * EVENTS;
+        assertEquals(expected, snapshot.getHitCount());
+        assertEquals(expected, snapshot.getMissCount());
+        assertEquals(expected, snapshot.getPutCount());
+        assertEquals(expected, snapshot.getEvictionCount());
+        assertEquals(expected, snapshot.getLoadCount());
+        assertEquals(10 * expected, snapshot.getTotalLoadTime());
+        assertEquals(expected, stats.getHits());
+    }
+
+    @Test
+    void snapshotsDoNotChangeAfterwards() {
+        StatsListener<String, String> stats = new StatsListener<>();
+        stats.onHit("key");
+        CacheStats snapshot = stats.snapshot();
+
+        stats.onHit("key");
+
+        assertEquals(1, snapshot.getHitCount());
+        assertEquals(2, stats.snapshot().getHitCount());
+    }
+
+    @Test
+    void derivesRatesAndIntervals() {
+        StatsListener<String, String> stats = new StatsListener<>();
+        CacheStats empty = stats.snapshot();
+        assertEquals(1.0, empty.getHitRate());
+        assertEquals(0.0, empty.getAverageLoadPenalty());
+
+        stats.onHit("a");
+        stats.onMiss("b");
+        stats.onMiss("c");
+        stats.onHit("a");
+        stats.onLoad("b", 100);
+        stats.onLoad("c", 300);
+        CacheStats interval = stats.snapshot().minus(empty);
+
+        assertEquals(0.5, interval.getHitRate());
+        assertEquals(200.0, interval.getAverageLoadPenalty());
+        assertEquals(2, interval.getLoadCount());
+    }
+}